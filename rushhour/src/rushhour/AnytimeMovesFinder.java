@@ -0,0 +1,65 @@
+// Rushhour AI assignment
+//
+// Description: Sample Rushhour boards
+// Date: December 2020
+// Author: John Maraist
+
+package rushhour;
+
+import java.util.function.Function;
+import search.AnytimeAStarSearcher;
+import rushhour.model.BoardState;
+import rushhour.model.Move;
+
+/**
+ *  Solution finder for RushHour boards using {@linkplain
+ *  AnytimeAStarSearcher anytime repairing A*}.  Through {@link
+ *  Runners} it searches until its solution is proven optimal; call
+ *  {@link AnytimeAStarSearcher#search(Object,double,
+ *  java.util.function.ObjDoubleConsumer) search} directly to see the
+ *  solutions along the way, or to stop at a looser bound.
+ */
+public class AnytimeMovesFinder
+    extends AnytimeAStarSearcher<BoardState,BoardNode>
+    implements Runners {
+
+  private final String name;
+
+  public AnytimeMovesFinder(Function<BoardState,Double> heuristic) {
+    this(heuristic, Move.Model.STEP, DEFAULT_INITIAL_WEIGHT,
+         DEFAULT_WEIGHT_STEP);
+  }
+
+  /**
+   *  Constructor which also selects the {@linkplain Move.Model move
+   *  model} and the weight schedule.
+   */
+  public AnytimeMovesFinder(Function<BoardState,Double> heuristic,
+                            Move.Model model,
+                            double initialWeight, double weightStep) {
+    this(heuristic, model, initialWeight, weightStep, "ARA*");
+  }
+
+  /**
+   *  Constructor which runs the heuristic of a {@link MovesFinder}
+   *  with a weight schedule.
+   */
+  public AnytimeMovesFinder(MovesFinder finder,
+                            double initialWeight, double weightStep) {
+    this(finder.getHeuristic(), finder.getModel(),
+         initialWeight, weightStep, finder.toString());
+  }
+
+  private AnytimeMovesFinder(Function<BoardState,Double> heuristic,
+                             Move.Model model,
+                             double initialWeight, double weightStep,
+                             String name) {
+    super((BoardNode node) -> node.hasGoalState(),
+          (BoardNode node) -> heuristic.apply(node.getState()),
+          (BoardState board) -> new BoardNode(board, model),
+          initialWeight, weightStep);
+    this.name = name;
+  }
+
+  @Override public String toString() { return name + " (ARA*)"; }
+}
@@ -0,0 +1,73 @@
+// Rushhour AI assignment
+//
+// Description: Sample Rushhour boards
+// Date: December 2020
+// Author: John Maraist
+
+package rushhour;
+
+import java.util.function.Function;
+import search.BeamSearcher;
+import rushhour.model.BoardState;
+import rushhour.model.Move;
+
+/**
+ *  Solution finder for RushHour boards using {@linkplain BeamSearcher
+ *  beam search}, for boards too large for A* to hold its frontier.
+ *  Solutions are not necessarily the shortest.
+ */
+public class BeamFinder extends BeamSearcher<BoardState,BoardNode>
+    implements Runners {
+
+  private final String name;
+
+  /**
+   *  Constructor for a beam of fixed width under the {@link
+   *  Move.Model#STEP STEP} model.
+   */
+  public BeamFinder(Function<BoardState,Double> heuristic, int width) {
+    this(heuristic, Move.Model.STEP, width, width, Integer.MAX_VALUE, "Beam");
+  }
+
+  /**
+   *  Constructor which also selects the {@linkplain Move.Model move
+   *  model}, the widest beam to try after a narrower one fails, and
+   *  the longest solution to look for.
+   */
+  public BeamFinder(Function<BoardState,Double> heuristic,
+                    Move.Model model, int width, int maxWidth,
+                    int maxDepth) {
+    this(heuristic, model, width, maxWidth, maxDepth, "Beam");
+  }
+
+  /**
+   *  Constructor which ranks boards by the heuristic of a {@link
+   *  MovesFinder}.
+   */
+  public BeamFinder(MovesFinder finder, int width, int maxWidth) {
+    this(finder, width, maxWidth, Integer.MAX_VALUE);
+  }
+
+  /**
+   *  Constructor which ranks boards by the heuristic of a {@link
+   *  MovesFinder}, and looks for solutions no longer than some
+   *  number of moves.
+   */
+  public BeamFinder(MovesFinder finder, int width, int maxWidth,
+                    int maxDepth) {
+    this(finder.getHeuristic(), finder.getModel(), width, maxWidth,
+         maxDepth, finder.toString());
+  }
+
+  private BeamFinder(Function<BoardState,Double> heuristic,
+                     Move.Model model, int width, int maxWidth,
+                     int maxDepth, String name) {
+    super((BoardNode node) -> node.hasGoalState(),
+          (BoardNode node) -> heuristic.apply(node.getState()),
+          width, maxWidth, maxDepth,
+          (BoardState board) -> new BoardNode(board, model));
+    this.name = name;
+  }
+
+  @Override public String toString() { return name + " (beam)"; }
+}
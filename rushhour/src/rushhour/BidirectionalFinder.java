@@ -0,0 +1,249 @@
+// Rushhour AI assignment
+//
+// Description: Sample Rushhour boards
+// Date: December 2020
+// Author: John Maraist
+
+package rushhour;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import search.SearchCancelledException;
+import search.SearchFailureException;
+import rushhour.model.BoardState;
+import rushhour.model.Move;
+
+/**
+ *  Solution finder for RushHour boards using bidirectional
+ *  breadth-first search.  Every move can be undone by the opposite
+ *  move, so the boards from which a goal can be reached in <i>k</i>
+ *  moves are exactly those reachable from a goal in <i>k</i> moves,
+ *  and a search can grow backward from the goals just as it grows
+ *  forward from the start.  The two searches each go a layer at a
+ *  time, always expanding whichever side's last layer is smaller,
+ *  until a board reached from one side has been reached from the
+ *  other.  The layer in which they meet is always finished, so that
+ *  the shortest of the paths through it is returned, which is the
+ *  same length as a breadth-first search would find.
+ *
+ *  There may be a great many goal boards, since the cars other than
+ *  the family car may sit anywhere.  So the backward search starts
+ *  out implicit, with the goals recognized by {@link
+ *  BoardState#isGoalState} when the forward search reaches them, and
+ *  the goals are {@linkplain BoardState#goalStates enumerated} only as
+ *  far as needed to see whether there are fewer of them than boards
+ *  in the forward search's last layer.  Once there are, they become
+ *  the backward search's first layer.
+ */
+public class BidirectionalFinder implements Runners {
+
+  private final Move.Model model;
+
+  private long added=-1, expanded=-1;
+
+  // The best meeting found in the layer being expanded: the forward
+  // node, and the backward node with the same board, or null if the
+  // forward node has reached a goal before the goals were enumerated.
+  private BoardNode meetingForward, meetingBackward;
+  private double meetingLength;
+
+  public BidirectionalFinder() {
+    this(Move.Model.STEP);
+  }
+
+  /**
+   *  Constructor which selects the {@linkplain Move.Model move
+   *  model}, and so what the length of a solution counts.
+   */
+  public BidirectionalFinder(Move.Model model) {
+    this.model = model;
+  }
+
+  /**
+   *  Tests the given sample boards using bidirectional BFS.
+   * @see Runners#runSampleBoards()
+   */
+  public static void main(String[] argv) {
+    new BidirectionalFinder().runSampleBoards();
+  }
+
+  /**
+   *  Searches for a shortest path from a board to any goal.
+   */
+  @Override public BoardNode search(BoardState start)
+      throws SearchFailureException {
+    return search(start, null);
+  }
+
+  /**
+   *  Searches for a shortest path from a board to a particular goal
+   *  board, or to any goal.
+   *
+   * @param start The initial board
+   *
+   * @param goal The board to reach, or <tt>null</tt> to reach any
+   * goal
+   *
+   * @return The node of the final board of the path, with parents
+   * leading back to the initial board
+   */
+  public BoardNode search(BoardState start, BoardState goal)
+      throws SearchFailureException {
+    final HashMap<BoardState,BoardNode>
+        forward = new HashMap<>(), backward = new HashMap<>();
+    ArrayList<BoardNode> forwardLayer = new ArrayList<>(), backwardLayer;
+
+    final BoardNode root = new BoardNode(start, model);
+    forward.put(start, root);
+    forwardLayer.add(root);
+    this.added = 1;
+    this.expanded = 0;
+
+    Iterator<BoardState> goals = null;
+    ArrayList<BoardState> goalsSoFar = null;
+    if (goal == null) {
+      if (start.isGoalState()) {
+        return root;
+      }
+      backwardLayer = null;
+      goals = start.goalStates();
+      goalsSoFar = new ArrayList<BoardState>();
+    } else {
+      if (start.equals(goal)) {
+        return root;
+      }
+      final BoardNode end = new BoardNode(goal, model);
+      backward.put(goal, end);
+      backwardLayer = new ArrayList<>();
+      backwardLayer.add(end);
+      this.added += 1;
+    }
+
+    while (!forwardLayer.isEmpty()
+           && (backwardLayer == null || !backwardLayer.isEmpty())) {
+      if (Thread.interrupted()) {
+        throw new SearchCancelledException();
+      }
+
+      // While the goals are implicit, see whether there are fewer of
+      // them than boards in the forward layer.
+      if (backwardLayer == null) {
+        while (goalsSoFar.size() <= forwardLayer.size() && goals.hasNext()) {
+          goalsSoFar.add(goals.next());
+        }
+        if (!goals.hasNext() && goalsSoFar.size() <= forwardLayer.size()) {
+          backwardLayer = new ArrayList<>();
+          for(final BoardState board : goalsSoFar) {
+            final BoardNode node = new BoardNode(board, model);
+            backward.put(board, node);
+            backwardLayer.add(node);
+          }
+          this.added += goalsSoFar.size();
+          goalsSoFar = null;
+          goals = null;
+          if (backwardLayer.isEmpty()) {
+            break;
+          }
+        }
+      }
+
+      meetingForward = null;
+      meetingBackward = null;
+      meetingLength = Double.POSITIVE_INFINITY;
+      if (backwardLayer == null
+          || forwardLayer.size() <= backwardLayer.size()) {
+        forwardLayer = expandLayer(forwardLayer, forward, backward,
+                                   true, backwardLayer == null);
+      } else {
+        backwardLayer = expandLayer(backwardLayer, backward, forward,
+                                    false, false);
+      }
+      if (meetingForward != null) {
+        return join(meetingForward, meetingBackward);
+      }
+    }
+
+    throw new SearchFailureException();
+  }
+
+  /**
+   *  Expands every node of one side's last layer, noting the shortest
+   *  path through any board the other side has already reached.
+   *
+   * @param layer The nodes to expand
+   * @param seen The boards this side has reached
+   * @param other The boards the other side has reached
+   * @param forwards Whether this is the forward side
+   * @param implicitGoals Whether the goals are still to be recognized
+   * by {@link BoardState#isGoalState}, rather than looked up in the
+   * backward side's boards
+   * @return The next layer
+   */
+  private ArrayList<BoardNode> expandLayer(ArrayList<BoardNode> layer,
+                                           HashMap<BoardState,BoardNode> seen,
+                                           HashMap<BoardState,BoardNode> other,
+                                           boolean forwards,
+                                           boolean implicitGoals) {
+    final ArrayList<BoardNode> next = new ArrayList<>();
+    for(final BoardNode node : layer) {
+      this.expanded += 1;
+      node.forEachChild((child) -> {
+          final BoardState board = child.getState();
+          if (seen.containsKey(board)) {
+            return;
+          }
+          seen.put(board, child);
+          next.add(child);
+          this.added += 1;
+          if (implicitGoals) {
+            if (board.isGoalState()) {
+              meet(child, null, child.getCost());
+            }
+          } else {
+            final BoardNode match = other.get(board);
+            if (match != null) {
+              meet(forwards ? child : match, forwards ? match : child,
+                   child.getCost() + match.getCost());
+            }
+          }
+        });
+    }
+    return next;
+  }
+
+  private void meet(BoardNode forwardNode, BoardNode backwardNode,
+                    double length) {
+    if (length < meetingLength) {
+      meetingForward = forwardNode;
+      meetingBackward = backwardNode;
+      meetingLength = length;
+    }
+  }
+
+  /**
+   *  Extends the forward path to a board along the backward path from
+   *  the same board, undoing each of the backward path's moves.
+   */
+  private static BoardNode join(BoardNode forwardNode,
+                                BoardNode backwardNode) {
+    BoardNode result = forwardNode;
+    for(BoardNode node = backwardNode;
+        node != null && node.getParent() != null;
+        node = node.getParent()) {
+      final Move move = node.getMove();
+      final BoardState board = result.getState();
+      final Move undo =
+          board.move(board.getLayout().indexOf(move.getCar().getId()),
+                     move.getDirection().opposite(), move.getDistance());
+      result = new BoardNode(result.getCost()+1, undo.apply(board),
+                             undo, result);
+    }
+    return result;
+  }
+
+  @Override public long getLastAddedToFrontier() { return added; }
+  @Override public long getLastExpandedFromFrontier() { return expanded; }
+
+  @Override public String toString() { return "Bidirectional BFS"; }
+}
@@ -8,8 +8,9 @@ package rushhour;
 
 import java.util.ArrayList;
 import java.util.Iterator;
-import search.KnowsOwnCost;
-import search.SearchTreeNode;
+import java.util.function.Consumer;
+import search.KnowsOwnPriority;
+import search.SearchTreePathNode;
 import rushhour.model.BoardState;
 import rushhour.model.Move;
 import rushhour.model.PlacedCar;
@@ -18,20 +19,40 @@ import rushhour.model.PlacedCar;
  *  Search tree node for building RushHour solution move sequences.
  */
 public class BoardNode
-    implements SearchTreeNode<BoardNode,BoardState>, KnowsOwnCost {
+    implements SearchTreePathNode<BoardNode,BoardState>, KnowsOwnPriority {
   private final double cost;
   private final BoardState board;
   private final Move move;
   private final BoardNode parent;
+  private final Move.Model model;
+  private double estimate = Double.NaN, priority = Double.NaN;
+
+  // The number under which a BoardNodeCodec registered this node as
+  // the parent of nodes it encoded, or -1.
+  int serial = -1;
 
   /**
    * Convenience constructor for a root tree node.  The parent is
    * taken to be <tt>null</tt>, the last move is {@link Move#NONE
-   * NONE}, and the sunk cost is zero.
+   * NONE}, the sunk cost is zero, and moves shift a car by a single
+   * square.
    *  @param board {@link BoardState} associated with this tree node
    */
   public BoardNode(BoardState board) {
-    this(0, board, Move.NONE, null);
+    this(board, Move.Model.STEP);
+  }
+
+  /**
+   * Constructor for a root tree node under a particular move model.
+   * The parent is taken to be <tt>null</tt>, the last move is {@link
+   * Move#NONE NONE}, and the sunk cost is zero.
+   *  @param board {@link BoardState} associated with this tree node
+   *  @param model How the nodes of this tree generate moves; every
+   *  move costs one, so under {@link Move.Model#SLIDE SLIDE} a whole
+   *  slide counts as a single move
+   */
+  public BoardNode(BoardState board, Move.Model model) {
+    this(0, board, Move.NONE, null, model);
   }
 
   /**
@@ -44,17 +65,31 @@ public class BoardNode
    */
   public BoardNode(double cost, BoardState board, Move move,
                    BoardNode parent) {
+    this(cost, board, move, parent,
+         parent == null ? Move.Model.STEP : parent.model);
+  }
+
+  private BoardNode(double cost, BoardState board, Move move,
+                    BoardNode parent, Move.Model model) {
     this.cost = cost;
     this.move = move;
     this.board = board;
     this.parent = parent;
+    this.model = model;
   }
 
   @Override public double getCost() { return cost; }
   @Override public BoardState getState() { return board; }
+  @Override public double getEstimate() { return estimate; }
+  @Override public double getPriority() { return priority; }
+  @Override public void setPriority(double estimate, double priority) {
+    this.estimate = estimate;
+    this.priority = priority;
+  }
   public boolean hasGoalState() { return board.isGoalState(); }
   public Move getMove() { return move; }
-  public BoardNode getParent() { return parent; }
+  @Override public BoardNode getParent() { return parent; }
+  public Move.Model getModel() { return model; }
 
   public ArrayList<Move> fillPath() {
     return fillPath(new ArrayList<Move>());
@@ -70,7 +105,8 @@ public class BoardNode
 
   public Iterable<BoardNode> expand() {
     return () -> new Iterator<BoardNode>() {
-        final Iterator<Move> nextMoves = board.getValidMoves().iterator();
+        final Iterator<Move> nextMoves
+            = board.getValidMoves(model).iterator();
         @Override public boolean hasNext() { return nextMoves.hasNext(); }
         @Override public BoardNode next() {
           final Move nextMove = nextMoves.next();
@@ -80,6 +116,30 @@ public class BoardNode
       };
   }
 
+  /**
+   *  Creates each successor node directly from the moves (or slides)
+   *  the board {@linkplain BoardState#forEachMove visits}, without
+   *  the intermediate collections of {@link #expand}.  The moves
+   *  visited are valid, so they are not checked again.
+   */
+  @Override public void forEachChild(Consumer<? super BoardNode> action) {
+    if (model == Move.Model.STEP) {
+      board.forEachMove((car, direction) -> {
+          action.accept(new BoardNode(cost+1,
+                                      board.afterMove(car, direction, 1),
+                                      board.move(car, direction), this));
+        });
+    } else {
+      board.forEachSlide((car, direction, distance) -> {
+          action.accept(new BoardNode(cost+1,
+                                      board.afterMove(car, direction,
+                                                      distance),
+                                      board.move(car, direction, distance),
+                                      this));
+        });
+    }
+  }
+
   @Override public String toString() {
     final StringBuilder sb = new StringBuilder();
 
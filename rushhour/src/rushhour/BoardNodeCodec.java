@@ -0,0 +1,176 @@
+// Rushhour AI assignment
+//
+// Description: Sample Rushhour boards
+// Date: December 2020
+// Author: John Maraist
+
+package rushhour;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.Function;
+import search.FrontierCodec;
+import rushhour.model.BoardLayout;
+import rushhour.model.BoardState;
+import rushhour.model.Move;
+import rushhour.model.PackedBoardState;
+
+/**
+ *  {@linkplain FrontierCodec Encoding} of {@link BoardNode}s for
+ *  frontiers which spill to disk.  Each record holds the board,
+ *  {@linkplain BoardState#pack packed} into the words of its layout;
+ *  the cost, estimate and priority of the node; and the serial number
+ *  of its parent.  A standard 6x6 board takes 36 bytes.
+ *
+ *  The codec registers the parent of each node it encodes, and that
+ *  parent's ancestors, in a table which is just as compact: the
+ *  packed board, the cost, and the serial number of the parent's own
+ *  parent.  The registered nodes themselves are not kept, so that
+ *  the heap need not hold every node which has been expanded.  Parents
+ *  are rebuilt from the table as the nodes referring to them are
+ *  decoded, with the moves between them found again by comparing
+ *  boards, and the most recently rebuilt are cached.
+ */
+public class BoardNodeCodec implements FrontierCodec<BoardNode> {
+
+  private static final int CACHE_SIZE = 1 << 12;
+
+  private final BoardLayout layout;
+  private final Move.Model model;
+  private final int words;
+
+  // The registered parents, by serial number.
+  private long[] keys = new long[0];
+  private int[] parents = new int[0];
+  private double[] costs = new double[0];
+  private int registered = 0;
+
+  private final BoardNode[] cache = new BoardNode[CACHE_SIZE];
+
+  /**
+   * @param layout The layout of every board encoded
+   * @param model The move model of the search, for the initial node
+   */
+  public BoardNodeCodec(BoardLayout layout, Move.Model model) {
+    this.layout = layout;
+    this.model = model;
+    this.words = layout.words();
+  }
+
+  /**
+   *  Returns a factory creating a codec for the search starting with
+   *  a particular node, as {@link
+   *  search.Frontiers.SpillingPriorityQueue} expects.
+   */
+  public static Function<BoardNode,FrontierCodec<BoardNode>> factory() {
+    return (BoardNode first) ->
+        new BoardNodeCodec(first.getState().getLayout(), first.getModel());
+  }
+
+  @Override public int recordSize() {
+    return 8*words + 3*8 + 4;
+  }
+
+  @Override public void encode(BoardNode node, ByteBuffer buffer) {
+    final PackedBoardState packed = node.getState().pack();
+    for(int i=0; i<words; i++) {
+      buffer.putLong(packed.word(i));
+    }
+    buffer.putDouble(node.getCost());
+    buffer.putDouble(node.getEstimate());
+    buffer.putDouble(node.getPriority());
+    buffer.putInt(register(node.getParent()));
+  }
+
+  @Override public BoardNode decode(ByteBuffer buffer) {
+    final long[] key = new long[words];
+    for(int i=0; i<words; i++) {
+      key[i] = buffer.getLong();
+    }
+    final double cost = buffer.getDouble();
+    final double estimate = buffer.getDouble();
+    final double priority = buffer.getDouble();
+    final int parent = buffer.getInt();
+
+    final BoardNode node = rebuild(PackedBoardState.of(layout, key),
+                                   cost, parent);
+    node.setPriority(estimate, priority);
+    return node;
+  }
+
+  /**
+   *  Returns the serial number of a node, registering it and its
+   *  ancestors if they are new, or -1 for no node.
+   */
+  private int register(BoardNode node) {
+    if (node == null) {
+      return -1;
+    }
+    if (node.serial >= 0) {
+      return node.serial;
+    }
+    final int parent = register(node.getParent());
+    final int id = registered;
+    if (id == parents.length) {
+      final int grown = Math.max(16, 2*id);
+      keys = Arrays.copyOf(keys, grown*words);
+      parents = Arrays.copyOf(parents, grown);
+      costs = Arrays.copyOf(costs, grown);
+    }
+    final PackedBoardState packed = node.getState().pack();
+    for(int i=0; i<words; i++) {
+      keys[id*words + i] = packed.word(i);
+    }
+    parents[id] = parent;
+    costs[id] = node.getCost();
+    node.serial = id;
+    registered += 1;
+    return id;
+  }
+
+  /**
+   *  Returns the registered node with some serial number, rebuilding
+   *  it if it is not cached.
+   */
+  private BoardNode registeredNode(int id) {
+    final int slot = id & (CACHE_SIZE-1);
+    final BoardNode cached = cache[slot];
+    if (cached != null && cached.serial == id) {
+      return cached;
+    }
+    final long[] key = Arrays.copyOfRange(keys, id*words, (id+1)*words);
+    final BoardNode node = rebuild(PackedBoardState.of(layout, key),
+                                   costs[id], parents[id]);
+    node.serial = id;
+    cache[slot] = node;
+    return node;
+  }
+
+  private BoardNode rebuild(PackedBoardState packed, double cost,
+                            int parentId) {
+    if (parentId < 0) {
+      return new BoardNode(packed.unpack(), model);
+    }
+    final BoardNode parent = registeredNode(parentId);
+    return new BoardNode(cost, packed.unpack(),
+                         moveBetween(parent.getState(), packed), parent);
+  }
+
+  /**
+   *  Finds the move leading from one board to another, which differ
+   *  in the position of a single car.
+   */
+  private Move moveBetween(BoardState from, PackedBoardState to) {
+    for(int i=0; i<from.placed(); i++) {
+      final int delta =
+          to.position(i) - BoardLayout.positionOf(from.placement(i));
+      if (delta != 0) {
+        final Move.Direction direction = layout.isVertical(i)
+            ? (delta < 0 ? Move.Direction.UP : Move.Direction.DOWN)
+            : (delta < 0 ? Move.Direction.LEFT : Move.Direction.RIGHT);
+        return from.move(i, direction, Math.abs(delta));
+      }
+    }
+    throw new IllegalStateException("Board is not a move from its parent");
+  }
+}
@@ -0,0 +1,61 @@
+// Rushhour AI assignment
+//
+// Description: Sample Rushhour boards
+// Date: December 2020
+// Author: John Maraist
+
+package rushhour;
+
+import java.util.function.Function;
+import search.SMAStarSearcher;
+import rushhour.model.BoardState;
+import rushhour.model.Move;
+
+/**
+ *  Solution finder for RushHour boards using {@linkplain
+ *  SMAStarSearcher memory-bounded A*}, which holds no more than a
+ *  fixed number of {@link BoardNode}s however hard the board.
+ */
+public class BoundedMovesFinder
+    extends SMAStarSearcher<BoardState,BoardNode>
+    implements Runners {
+
+  private final String name;
+
+  public BoundedMovesFinder(Function<BoardState,Double> heuristic,
+                            int maxNodes) {
+    this(heuristic, Move.Model.STEP, maxNodes, "SMA*");
+  }
+
+  /**
+   *  Constructor which also selects the {@linkplain Move.Model move
+   *  model}.
+   */
+  public BoundedMovesFinder(Function<BoardState,Double> heuristic,
+                            Move.Model model, int maxNodes) {
+    this(heuristic, model, maxNodes, "SMA*");
+  }
+
+  /**
+   *  Constructor which runs the heuristic of a {@link MovesFinder}
+   *  within a node budget.
+   */
+  public BoundedMovesFinder(MovesFinder finder, int maxNodes) {
+    this(finder.getHeuristic(), finder.getModel(), maxNodes,
+         finder.toString());
+  }
+
+  private BoundedMovesFinder(Function<BoardState,Double> heuristic,
+                             Move.Model model, int maxNodes,
+                             String name) {
+    super((BoardNode node) -> node.hasGoalState(),
+          (BoardNode node) -> heuristic.apply(node.getState()),
+          (BoardState board) -> new BoardNode(board, model),
+          maxNodes);
+    this.name = name;
+  }
+
+  @Override public String toString() {
+    return name + " (SMA*, " + getMaxNodes() + " nodes)";
+  }
+}
@@ -15,7 +15,9 @@ import search.BreadthFirstSearcher;
 import search.KnowsOwnCost;
 import search.SearchTreeNode;
 import search.GoalCheckers;
+import search.ExploredSet;
 import search.ExploredSets;
+import search.Frontiers;
 import rushhour.model.BoardState;
 import rushhour.model.Move;
 import rushhour.model.PlacedCar;
@@ -29,9 +31,32 @@ public class BreadthFirstFinder
     implements Runners {
 
   public BreadthFirstFinder() {
+    this(Move.Model.STEP);
+  }
+
+  /**
+   *  Constructor which selects the {@linkplain Move.Model move
+   *  model}, and so what the length of a solution counts.
+   */
+  public BreadthFirstFinder(Move.Model model) {
+    this(model, ExploredSets.trackByFingerprint
+             ((BoardNode node) -> node.getState().fingerprint(),
+              (BoardNode node) -> node.getState().fingerprintKey()));
+  }
+
+  /**
+   *  Constructor which also selects how boards already reached are
+   *  tracked, for example {@linkplain
+   *  ExploredSets#trackByFingerprintOffHeap off the heap} for
+   *  exhaustive searches of large boards.
+   */
+  public BreadthFirstFinder
+      (Move.Model model,
+       Function<Frontiers.Queue<BoardNode>,
+                ExploredSet<BoardNode>> exploredSetFactory) {
     super(() -> GoalCheckers.firstGoal((BoardNode cn) -> cn.hasGoalState()),
-          ExploredSets.trackGeneratedByArtifactHashSet((n) -> n.getState().boardString()),
-          (BoardState board) -> new BoardNode(board));
+          exploredSetFactory,
+          (BoardState board) -> new BoardNode(board, model));
     // setDebug(true);
   }
 
@@ -48,7 +73,7 @@ public class BreadthFirstFinder
     System.out.print(" - Available moves: ");
     String sep = "";
     String fin = "none";
-    for(final Move move : node.getState().getValidMoves()) {
+    for(final Move move : node.getState().getValidMoves(node.getModel())) {
       System.out.print(sep);
       System.out.print(move.toString());
       sep = ", ";
@@ -56,4 +81,6 @@ public class BreadthFirstFinder
     }
     System.out.println(fin);
   }
+
+  @Override public String toString() { return "BFS"; }
 }
@@ -32,12 +32,54 @@ import rushhour.model.PlacedCar;
 public class MovesFinder extends AStarSearcher<BoardState,BoardNode>
     implements Runners {
 
+  private final Function<BoardState,Double> heuristic;
+  private final Move.Model model;
+
   public MovesFinder(Function<BoardState,Double> heuristic) {
+    this(heuristic, Move.Model.STEP);
+  }
+
+  /**
+   *  Constructor which also selects the {@linkplain Move.Model move
+   *  model}.  Note that a heuristic counting squares the family car
+   *  must travel is not admissible under {@link Move.Model#SLIDE
+   *  SLIDE}, where one move can cover several squares.
+   */
+  public MovesFinder(Function<BoardState,Double> heuristic,
+                     Move.Model model) {
+    this(heuristic, model, 1.0);
+  }
+
+  /**
+   *  Constructor for weighted A*, which orders boards by <i>g(n) +
+   *  w&middot;h(n)</i>.  With <i>w</i> &gt; 1 the search usually
+   *  finishes much sooner, with a solution which may be longer than
+   *  necessary.
+   */
+  public MovesFinder(Function<BoardState,Double> heuristic,
+                     Move.Model model, double weight) {
     super((BoardNode node) -> node.hasGoalState(),
           (BoardNode node) -> heuristic.apply(node.getState()),
-          ExploredSets.trackGeneratedByArtifactHashSet
-              ((node) -> node.getState().boardString()),
-          (BoardState board) -> new BoardNode(board));
+          weight,
+          ExploredSets.trackByFingerprint
+              ((BoardNode node) -> node.getState().fingerprint(),
+               (BoardNode node) -> node.getState().fingerprintKey()),
+          (BoardState board) -> new BoardNode(board, model));
+    this.heuristic = heuristic;
+    this.model = model;
     // setDebug(true);
   }
+
+  /**
+   *  Returns the heuristic function on boards which this finder
+   *  uses, for example to run the same heuristic in a {@link
+   *  ParallelMovesFinder}.
+   */
+  public Function<BoardState,Double> getHeuristic() { return heuristic; }
+
+  /**
+   *  Returns the {@linkplain Move.Model move model} under which this
+   *  finder searches.
+   */
+  public Move.Model getModel() { return model; }
 }
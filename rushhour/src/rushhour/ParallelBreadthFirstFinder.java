@@ -0,0 +1,57 @@
+// Rushhour AI assignment
+//
+// Description: Sample Rushhour boards
+// Date: December 2020
+// Author: John Maraist
+
+package rushhour;
+
+import java.util.concurrent.ForkJoinPool;
+import search.ParallelBreadthFirstSearcher;
+import rushhour.model.BoardState;
+import rushhour.model.Move;
+
+/**
+ *  Solution finder for RushHour boards using breadth-first search,
+ *  with each layer expanded in parallel.  Finds the same solutions
+ *  as {@link BreadthFirstFinder}, with the same counts of nodes added
+ *  and expanded.
+ */
+public class ParallelBreadthFirstFinder
+    extends ParallelBreadthFirstSearcher<BoardState,BoardNode>
+    implements Runners {
+
+  public ParallelBreadthFirstFinder() {
+    this(Move.Model.STEP);
+  }
+
+  /**
+   *  Constructor which selects the {@linkplain Move.Model move
+   *  model}, and so what the length of a solution counts.
+   */
+  public ParallelBreadthFirstFinder(Move.Model model) {
+    this(model, ForkJoinPool.commonPool());
+  }
+
+  /**
+   *  Constructor which also selects the threads which expand each
+   *  layer.
+   */
+  public ParallelBreadthFirstFinder(Move.Model model, ForkJoinPool pool) {
+    super((BoardNode node) -> node.hasGoalState(),
+          (BoardNode node) -> node.getState().fingerprint(),
+          (BoardNode node) -> node.getState().fingerprintKey(),
+          (BoardState board) -> new BoardNode(board, model),
+          pool);
+  }
+
+  /**
+   *  Tests the given sample boards using parallel BFS.
+   * @see Runners#runSampleBoards()
+   */
+  public static void main(String[] argv) {
+    new ParallelBreadthFirstFinder().runSampleBoards();
+  }
+
+  @Override public String toString() { return "Parallel BFS"; }
+}
@@ -0,0 +1,62 @@
+// Rushhour AI assignment
+//
+// Description: Sample Rushhour boards
+// Date: December 2020
+// Author: John Maraist
+
+package rushhour;
+
+import java.util.function.Function;
+import search.HDAStarSearcher;
+import rushhour.model.BoardState;
+import rushhour.model.Move;
+
+/**
+ *  Solution finder for RushHour boards using {@linkplain
+ *  HDAStarSearcher hash-distributed A*} over several threads.  Any
+ *  {@link MovesFinder} can be run this way without change, by passing
+ *  it to the {@linkplain #ParallelMovesFinder(MovesFinder,int)
+ *  constructor} which borrows its heuristic, move model and name.
+ */
+public class ParallelMovesFinder
+    extends HDAStarSearcher<BoardState,BoardNode>
+    implements Runners {
+
+  private final String name;
+
+  public ParallelMovesFinder(Function<BoardState,Double> heuristic) {
+    this(heuristic, Move.Model.STEP,
+         Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   *  Constructor which also selects the {@linkplain Move.Model move
+   *  model} and the number of worker threads.
+   */
+  public ParallelMovesFinder(Function<BoardState,Double> heuristic,
+                             Move.Model model, int threads) {
+    this(heuristic, model, threads, "HDA*");
+  }
+
+  /**
+   *  Constructor which runs the heuristic of a sequential finder on
+   *  a number of worker threads.
+   */
+  public ParallelMovesFinder(MovesFinder finder, int threads) {
+    this(finder.getHeuristic(), finder.getModel(), threads,
+         finder.toString());
+  }
+
+  private ParallelMovesFinder(Function<BoardState,Double> heuristic,
+                              Move.Model model, int threads, String name) {
+    super((BoardNode node) -> node.hasGoalState(),
+          (BoardNode node) -> heuristic.apply(node.getState()),
+          (BoardState board) -> new BoardNode(board, model),
+          threads);
+    this.name = name;
+  }
+
+  @Override public String toString() {
+    return name + " (" + getThreads() + " threads)";
+  }
+}
@@ -0,0 +1,356 @@
+// Rushhour AI assignment
+//
+// Description: Sample Rushhour boards
+// Date: December 2020
+// Author: John Maraist
+
+package rushhour;
+
+import java.util.ArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import search.SearchCancelledException;
+import search.SearchFailureException;
+import rushhour.model.Boards;
+import rushhour.model.BoardState;
+
+/**
+ *  Runs several finders on the same board at once, and takes the
+ *  first answer which can be trusted.  Each finder is {@linkplain
+ *  #add added} with a flag saying whether its heuristic is
+ *  admissible, so that its first solution is as short as possible.
+ *  As soon as an admissible finder returns a solution, that solution
+ *  is the result, and the other finders are interrupted.  If no
+ *  admissible finder succeeds, the shortest solution from any of the
+ *  finders is the result, once they have all finished.
+ *
+ *  Finders built on {@link search.GraphSearcher} check for
+ *  interruption before each expansion, and stop with a {@link
+ *  SearchCancelledException}.  A finder which does not check runs to
+ *  the end, and its answer is ignored.  Either way {@link #search}
+ *  waits for every finder to stop before returning, so that each
+ *  finder's statistics describe the work it actually did, and so that
+ *  no finder is still busy with one board when the next is started.
+ *
+ *  A {@link MovesFinder} keeps the first path generated to each
+ *  board, which need not be the shortest, whatever its heuristic, so
+ *  a {@link MovesFinder} may not be added as admissible.  A {@link
+ *  ReopeningMovesFinder} runs the same heuristic with a shortest
+ *  first solution.
+ *
+ *  Since the finders run simultaneously, no finder may be added to
+ *  the same portfolio twice, or be in use elsewhere during a search.
+ */
+public class PortfolioRunner implements Runners {
+
+  /**
+   *  How one finder's part in the last search ended.
+   */
+  public enum Outcome {
+    /** Returned the solution which is the portfolio's result. */
+    WON,
+    /** Returned a solution which is not the portfolio's result. */
+    SOLVED,
+    /** Found that there is no solution, or threw an exception. */
+    FAILED,
+    /** Stopped before finishing. */
+    CANCELLED
+  }
+
+  private final Executor executor;
+  private final ArrayList<Runners> finders = new ArrayList<>();
+  private final ArrayList<Boolean> admissible = new ArrayList<>();
+
+  private Runners winner = null;
+  private Outcome[] outcomes = null;
+  private long[] added = null, expanded = null;
+
+  /**
+   *  Constructor which runs the finders on daemon threads of its own,
+   *  created as needed.
+   */
+  public PortfolioRunner() {
+    this(Executors.newCachedThreadPool((r) -> {
+          final Thread thread = new Thread(r, "Portfolio finder");
+          thread.setDaemon(true);
+          return thread;
+        }));
+  }
+
+  /**
+   *  Constructor which runs the finders on an existing executor.  The
+   *  executor needs a thread for each finder, or finders waiting for
+   *  a thread will only start after the ones ahead of them stop.
+   */
+  public PortfolioRunner(Executor executor) {
+    this.executor = executor;
+  }
+
+  /**
+   *  Adds a finder to this portfolio.
+   *
+   * @param finder The finder
+   * @param admissible Whether the first solution the finder returns is
+   * known to be a shortest one, so that the portfolio need not wait
+   * for the other finders
+   * @return This portfolio
+   * @throws IllegalArgumentException if a {@link MovesFinder} is
+   * added as admissible
+   */
+  public PortfolioRunner add(Runners finder, boolean admissible) {
+    if (admissible && finder instanceof MovesFinder) {
+      throw new IllegalArgumentException
+          (finder + " may return a longer solution first;"
+           + " use a ReopeningMovesFinder");
+    }
+    this.finders.add(finder);
+    this.admissible.add(admissible);
+    return this;
+  }
+
+  /**
+   *  Returns the number of finders in this portfolio.
+   */
+  public int size() { return finders.size(); }
+
+  /**
+   *  Returns the finder added to this portfolio at some position.
+   */
+  public Runners get(int i) { return finders.get(i); }
+
+  /**
+   *  Runs all of the finders on a board, returning the first solution
+   *  of an admissible finder, or failing that the shortest solution
+   *  of any.
+   *
+   * @throws SearchFailureException if no finder finds a solution
+   * @throws SearchCancelledException if the thread calling this
+   * method is interrupted, in which case every finder is interrupted
+   * too
+   */
+  @Override public BoardNode search(BoardState board)
+      throws SearchFailureException {
+    final int count = finders.size();
+    if (count == 0) {
+      throw new IllegalStateException("No finders in the portfolio");
+    }
+
+    final Race race = new Race(board, count);
+    for(int i=0; i<count; i++) {
+      final int index = i;
+      executor.execute(() -> race.run(index));
+    }
+
+    int winning = -1, remaining = count;
+    boolean interrupted = false;
+    while (remaining > 0) {
+      final int done;
+      try {
+        done = race.finished.take();
+      } catch (InterruptedException e) {
+        interrupted = true;
+        race.cancel();
+        continue;
+      }
+      remaining -= 1;
+      if (winning < 0 && !interrupted
+          && race.results[done] != null && admissible.get(done)) {
+        winning = done;
+        race.cancel();
+      }
+    }
+    final BoardNode[] results = race.results;
+    final Throwable[] thrown = race.thrown;
+
+    // With no admissible solution, take the shortest.
+    if (winning < 0 && !interrupted) {
+      for(int i=0; i<count; i++) {
+        if (results[i] != null
+            && (winning < 0
+                || results[i].getCost() < results[winning].getCost())) {
+          winning = i;
+        }
+      }
+    }
+
+    this.winner = winning < 0 ? null : finders.get(winning);
+    this.outcomes = new Outcome[count];
+    this.added = new long[count];
+    this.expanded = new long[count];
+    for(int i=0; i<count; i++) {
+      outcomes[i] = i == winning ? Outcome.WON
+          : results[i] != null ? Outcome.SOLVED
+          : thrown[i] instanceof SearchCancelledException ? Outcome.CANCELLED
+          : Outcome.FAILED;
+      added[i] = finders.get(i).getLastAddedToFrontier();
+      expanded[i] = finders.get(i).getLastExpandedFromFrontier();
+    }
+
+    if (interrupted) {
+      throw new SearchCancelledException();
+    }
+    if (winning < 0) {
+      for(final Throwable t : thrown) {
+        if (t instanceof RuntimeException) {
+          throw (RuntimeException)t;
+        } else if (t instanceof Error) {
+          throw (Error)t;
+        }
+      }
+      throw new SearchFailureException();
+    }
+    return results[winning];
+  }
+
+  /**
+   *  The finders' runs on one board.  A finder is interrupted only
+   *  while it is searching, and any interrupt which arrives as its
+   *  search returns is cleared before its thread goes back to the
+   *  executor.  A finder which has not yet started when the race is
+   *  cancelled does not search at all.
+   */
+  private final class Race {
+    final BoardState board;
+
+    // Each finder's result, or what it threw instead.  The queue of
+    // finished finders makes these visible to the searching thread.
+    final BoardNode[] results;
+    final Throwable[] thrown;
+    final LinkedBlockingQueue<Integer> finished = new LinkedBlockingQueue<>();
+
+    private final Thread[] searching;
+    private boolean cancelled = false;
+
+    Race(BoardState board, int count) {
+      this.board = board;
+      this.results = new BoardNode[count];
+      this.thrown = new Throwable[count];
+      this.searching = new Thread[count];
+    }
+
+    void run(int i) {
+      try {
+        if (start(i)) {
+          results[i] = finders.get(i).search(board);
+        } else {
+          thrown[i] = new SearchCancelledException();
+        }
+      } catch (Throwable t) {
+        thrown[i] = t;
+      } finally {
+        stop(i);
+        finished.add(i);
+      }
+    }
+
+    private synchronized boolean start(int i) {
+      if (!cancelled) {
+        searching[i] = Thread.currentThread();
+      }
+      return !cancelled;
+    }
+
+    private synchronized void stop(int i) {
+      searching[i] = null;
+      Thread.interrupted();
+    }
+
+    synchronized void cancel() {
+      cancelled = true;
+      for(final Thread thread : searching) {
+        if (thread != null) {
+          thread.interrupt();
+        }
+      }
+    }
+  }
+
+  // -----------------------------------------------------------------
+  // Statistics.
+
+  /**
+   *  Returns the finder whose solution was the result of the last
+   *  search.
+   * @return <tt>null</tt> if no search has been executed, or if the
+   * last search failed
+   */
+  public Runners getLastWinner() { return winner; }
+
+  /**
+   *  Returns how the part of one finder in the last search ended.
+   * @return <tt>null</tt> if no search has been executed
+   */
+  public Outcome getLastOutcome(int i) {
+    return outcomes == null ? null : outcomes[i];
+  }
+
+  /**
+   *  Returns the number of nodes one finder added to its frontier in
+   *  the last search, up to when it finished or stopped.
+   * @return -1 if no search has been executed
+   */
+  public long getLastAddedToFrontier(int i) {
+    return added == null ? -1 : added[i];
+  }
+
+  /**
+   *  Returns the number of nodes one finder expanded in the last
+   *  search, up to when it finished or stopped.
+   * @return -1 if no search has been executed
+   */
+  public long getLastExpandedFromFrontier(int i) {
+    return expanded == null ? -1 : expanded[i];
+  }
+
+  /**
+   *  Returns the total number of nodes all of the finders added to
+   *  their frontiers in the last search.
+   * @return -1 if no search has been executed
+   */
+  @Override public long getLastAddedToFrontier() {
+    return added == null ? -1 : sum(added);
+  }
+
+  /**
+   *  Returns the total number of nodes all of the finders expanded in
+   *  the last search.
+   * @return -1 if no search has been executed
+   */
+  @Override public long getLastExpandedFromFrontier() {
+    return expanded == null ? -1 : sum(expanded);
+  }
+
+  private static long sum(long[] counts) {
+    long total = 0;
+    for(final long count : counts) {
+      total += count;
+    }
+    return total;
+  }
+
+  /**
+   *  Races BFS against A* with the zero heuristic on the sample
+   *  boards, showing which wins each board and how far each got.
+   */
+  public static void main(String[] argv) {
+    final PortfolioRunner portfolio = new PortfolioRunner()
+        .add(new BreadthFirstFinder(), true)
+        .add(new ReopeningMovesFinder(new ZeroHeuristic()), true);
+    for(final String name : Boards.BOARDS.keySet()) {
+      final int length = portfolio.runSearch(Boards.BOARDS.get(name)).size();
+      System.out.printf("%s: solution length %d, won by %s\n",
+                        name, length, portfolio.getLastWinner());
+      for(int i=0; i<portfolio.size(); i++) {
+        System.out.printf(" - %s: %s, added %d nodes, expanded %d\n",
+                          portfolio.get(i), portfolio.getLastOutcome(i),
+                          portfolio.getLastAddedToFrontier(i),
+                          portfolio.getLastExpandedFromFrontier(i));
+      }
+    }
+  }
+
+  @Override public String toString() {
+    return "Portfolio of " + finders;
+  }
+}
@@ -0,0 +1,64 @@
+// Rushhour AI assignment
+//
+// Description: Sample Rushhour boards
+// Date: December 2020
+// Author: John Maraist
+
+package rushhour;
+
+import java.util.function.Function;
+import search.AStarSearcher;
+import search.ExploredSets;
+import rushhour.model.BoardState;
+import rushhour.model.Move;
+
+/**
+ *  Solution finder for RushHour boards using A* which reopens boards
+ *  reached again by a shorter path.  A {@link MovesFinder} keeps the
+ *  first path generated to each board, which need not be the
+ *  shortest, so neither need its solution be.  This finder
+ *  {@linkplain ExploredSets#trackCheapestByArtifactHashMap keeps the
+ *  cheapest} path instead, and its first solution is a shortest one
+ *  for any admissible heuristic, at the price of expanding some
+ *  boards more than once.
+ */
+public class ReopeningMovesFinder extends AStarSearcher<BoardState,BoardNode>
+    implements Runners {
+
+  private final String name;
+
+  public ReopeningMovesFinder(Function<BoardState,Double> heuristic) {
+    this(heuristic, Move.Model.STEP, "Reopening");
+  }
+
+  /**
+   *  Constructor which also selects the {@linkplain Move.Model move
+   *  model}.
+   */
+  public ReopeningMovesFinder(Function<BoardState,Double> heuristic,
+                              Move.Model model) {
+    this(heuristic, model, "Reopening");
+  }
+
+  /**
+   *  Constructor which runs the heuristic and move model of a {@link
+   *  MovesFinder}, reopening boards.  The finder's weight is not
+   *  used, since a weighted search does not promise a shortest
+   *  solution either way.
+   */
+  public ReopeningMovesFinder(MovesFinder finder) {
+    this(finder.getHeuristic(), finder.getModel(), finder.toString());
+  }
+
+  private ReopeningMovesFinder(Function<BoardState,Double> heuristic,
+                               Move.Model model, String name) {
+    super((BoardNode node) -> node.hasGoalState(),
+          (BoardNode node) -> heuristic.apply(node.getState()),
+          ExploredSets.trackCheapestByArtifactHashMap
+              ((BoardNode node) -> node.getState()),
+          (BoardState board) -> new BoardNode(board, model));
+    this.name = name;
+  }
+
+  @Override public String toString() { return name + " (reopening)"; }
+}
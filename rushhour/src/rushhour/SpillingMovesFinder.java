@@ -0,0 +1,87 @@
+// Rushhour AI assignment
+//
+// Description: Sample Rushhour boards
+// Date: December 2020
+// Author: John Maraist
+
+package rushhour;
+
+import java.nio.file.Path;
+import java.util.function.Function;
+import search.AStarSearcher;
+import search.ExploredSets;
+import search.Frontiers;
+import rushhour.model.BoardState;
+import rushhour.model.Move;
+
+/**
+ *  Solution finder for RushHour boards using A* with a frontier which
+ *  {@linkplain Frontiers.SpillingPriorityQueue spills to disk} past a
+ *  fixed number of nodes, {@linkplain BoardNodeCodec encoded}
+ *  compactly, and with an explored set of {@linkplain
+ *  ExploredSets#trackByFingerprintOffHeap fingerprints outside the
+ *  heap}.  The heap then holds little beyond the nodes kept in memory
+ *  and the parents of the nodes on disk, so searches whose frontier
+ *  is many times larger than the heap can finish.
+ */
+public class SpillingMovesFinder extends AStarSearcher<BoardState,BoardNode>
+    implements Runners {
+
+  /**
+   *  The number of states the explored set is first sized for.
+   */
+  private static final long INITIAL_STATES = 1 << 16;
+
+  private final String name;
+
+  /**
+   *  Constructor under the {@link Move.Model#STEP STEP} model, with
+   *  run files in the system's temporary directory.
+   */
+  public SpillingMovesFinder(Function<BoardState,Double> heuristic,
+                             int capacity) {
+    this(heuristic, Move.Model.STEP, 1.0, capacity,
+         Path.of(System.getProperty("java.io.tmpdir")), "Spilling");
+  }
+
+  /**
+   *  Constructor which also selects the {@linkplain Move.Model move
+   *  model} and where run files go.
+   *
+   * @param capacity The most nodes held in memory by the frontier
+   * @param directory Where the frontier's run files are created
+   */
+  public SpillingMovesFinder(Function<BoardState,Double> heuristic,
+                             Move.Model model, int capacity,
+                             Path directory) {
+    this(heuristic, model, 1.0, capacity, directory, "Spilling");
+  }
+
+  /**
+   *  Constructor which runs the heuristic, move model and weight of a
+   *  {@link MovesFinder} with a spilling frontier.
+   */
+  public SpillingMovesFinder(MovesFinder finder, int capacity,
+                             Path directory) {
+    this(finder.getHeuristic(), finder.getModel(), finder.getWeight(),
+         capacity, directory, finder.toString());
+  }
+
+  private SpillingMovesFinder(Function<BoardState,Double> heuristic,
+                              Move.Model model, double weight,
+                              int capacity, Path directory, String name) {
+    super((BoardNode node) -> node.hasGoalState(),
+          (BoardNode node) -> heuristic.apply(node.getState()),
+          weight,
+          (cmp) -> Frontiers.spillingPriorityQueueFactory
+              (cmp, capacity, BoardNodeCodec.factory(), directory),
+          ExploredSets.trackByFingerprintOffHeap
+              ((BoardNode node) -> node.getState().fingerprint(),
+               (BoardNode node) -> node.getState().fingerprintKey(),
+               INITIAL_STATES),
+          (BoardState board) -> new BoardNode(board, model));
+    this.name = name;
+  }
+
+  @Override public String toString() { return name + " (spilling)"; }
+}
@@ -0,0 +1,409 @@
+// Rushhour AI assignment
+//
+// Description: Sample Rushhour boards
+// Date: December 2020
+// Author: John Maraist
+
+
+package rushhour.model;
+import java.util.Arrays;
+
+/**
+ *  The fixed part of a Rushhour board: the board size, and for each
+ *  placed car its identity, orientation, length and lane.  None of
+ *  these change as cars move, so every {@link BoardState} reached
+ *  from one initial board shares a single layout, and the only thing
+ *  which distinguishes those states is where along its lane each car
+ *  sits.
+ *
+ *  The layout also fixes the encoding of those lane positions into a
+ *  {@link PackedBoardState}: each car's position takes {@link
+ *  #bitsPerCar} bits, and the positions are packed low bits first
+ *  into as many <tt>long</tt> words as needed, with no car's bits
+ *  split across two words.  A standard 6x6 board takes three bits per
+ *  car, so up to 21 cars fit in a single word.
+ */
+public final class BoardLayout {
+
+  /**
+   *  The largest supported board size.  A {@link BoardState} reads
+   *  the occupancy of each row and column as a <tt>long</tt> bit
+   *  mask.
+   */
+  public static final int MAX_BOARD_SIZE = 64;
+
+  private final int boardSize;
+  private final int[] ids;
+  private final String[] names;
+  private final boolean[] vertical;
+  private final int[] lengths;
+  private final int[] lanes;
+  private final int[] indexById;
+  private final int target;
+  private final int bitsPerCar, carsPerWord, words;
+  private final int[] wordOf, shiftOf;
+  private final int columnBits, occupancyWords;
+  private final int[] laneBit, crossBit;
+  private final long[][] zobrist;
+  private final PlacedCar[][] placements;
+  private final Move[][] moves;
+
+  /**
+   *  Extracts the layout from a particular placement of cars.
+   *
+   * @param cars The cars of the board, in the order in which the
+   * board stores them
+   *
+   * @param boardSize The size of the (square) board
+   */
+  BoardLayout(PlacedCar[] cars, int boardSize) {
+    if (boardSize > MAX_BOARD_SIZE) {
+      throw new IllegalArgumentException
+          ("Board size " + boardSize + " exceeds " + MAX_BOARD_SIZE);
+    }
+    final int placed = cars.length;
+    this.boardSize = boardSize;
+    this.ids = new int[placed];
+    this.names = new String[placed];
+    this.vertical = new boolean[placed];
+    this.lengths = new int[placed];
+    this.lanes = new int[placed];
+
+    int maxId = -1, target = -1;
+    for(int i=0; i<placed; i++) {
+      final PlacedCar car = cars[i];
+      ids[i] = car.getId();
+      names[i] = car.getName();
+      vertical[i] = car.isVertical();
+      lengths[i] = car.getLength();
+      lanes[i] = car.isVertical() ? car.getCol() : car.getRow();
+      if (maxId < car.getId()) { maxId = car.getId(); }
+      if (target < 0 && car.isTargetCar()) { target = i; }
+    }
+    this.target = target;
+
+    // Builders never reuse an ID, but after undoing a car they may
+    // skip one, so the ID is not necessarily the index.
+    this.indexById = new int[maxId+1];
+    Arrays.fill(indexById, -1);
+    for(int i=0; i<placed; i++) {
+      indexById[ids[i]] = i;
+    }
+
+    this.bitsPerCar = Math.max(1, 32-Integer.numberOfLeadingZeros(boardSize-1));
+    this.carsPerWord = 64/bitsPerCar;
+    this.words = Math.max(1, (placed+carsPerWord-1)/carsPerWord);
+    this.wordOf = new int[placed];
+    this.shiftOf = new int[placed];
+    for(int i=0; i<placed; i++) {
+      wordOf[i] = i/carsPerWord;
+      shiftOf[i] = bitsPerCar*(i%carsPerWord);
+    }
+
+    // Where each car's squares fall in the occupancy bitboards: its
+    // own lane, and the square at position 0 of the crossing lanes.
+    this.columnBits = ((boardSize*boardSize+63) >>> 6) << 6;
+    this.occupancyWords = 2*columnBits/64;
+    this.laneBit = new int[placed];
+    this.crossBit = new int[placed];
+    for(int i=0; i<placed; i++) {
+      laneBit[i] = occupancyBit(lanes[i], !vertical[i]);
+      crossBit[i] = occupancyBit(0, vertical[i]) + lanes[i];
+    }
+
+    this.zobrist = new long[placed][boardSize];
+    for(int i=0; i<placed; i++) {
+      for(int p=0; p<boardSize; p++) {
+        zobrist[i][p] = zobristKey(boardSize, i, p);
+      }
+    }
+
+    // The canonical placement of each car at each position in its
+    // lane.  The cars we were given stand for their own positions.
+    this.placements = new PlacedCar[placed][];
+    for(int i=0; i<placed; i++) {
+      placements[i] = new PlacedCar[boardSize-lengths[i]+1];
+      for(int p=0; p<placements[i].length; p++) {
+        placements[i][p] = (p == positionOf(cars[i]))
+            ? cars[i] : newPlacement(i, p);
+      }
+    }
+    this.moves = new Move[placed][];
+  }
+
+  /**
+   *  Returns the size of boards with this (square) layout.
+   */
+  public int getBoardSize() { return boardSize; }
+  /**
+   *  Returns the number of cars placed on boards with this layout.
+   */
+  public int placed() { return ids.length; }
+  /**
+   *  Returns the ID of the car at a particular index.
+   */
+  public int getId(int car) { return ids[car]; }
+  /**
+   *  Returns the name of the car at a particular index.
+   */
+  public String getName(int car) { return names[car]; }
+  /**
+   *  Returns whether the car at a particular index moves up and down.
+   */
+  public boolean isVertical(int car) { return vertical[car]; }
+  /**
+   *  Returns the length of the car at a particular index.
+   */
+  public int getLength(int car) { return lengths[car]; }
+  /**
+   *  Returns the lane of the car at a particular index: its column if
+   *  it is vertical, and its row if it is horizontal.
+   */
+  public int getLane(int car) { return lanes[car]; }
+  /**
+   *  Returns the index of the family car, or -1 if the board has
+   *  none.
+   */
+  public int targetIndex() { return target; }
+
+  /**
+   *  Returns the index at which boards of this layout store the car
+   *  with a particular ID.
+   *
+   * @return -1 if no car on this layout has that ID
+   */
+  public int indexOf(int id) {
+    return (0<=id && id<indexById.length) ? indexById[id] : -1;
+  }
+
+  /**
+   *  Returns the position of a car along its lane: its row if it is
+   *  vertical, and its column if it is horizontal.
+   */
+  public static int positionOf(PlacedCar car) {
+    return car.isVertical() ? car.getRow() : car.getCol();
+  }
+
+  /**
+   *  Returns the placement of the car at a particular index when it
+   *  sits at a particular position along its lane.  Placements are
+   *  interned: every board of this layout shares the same {@link
+   *  PlacedCar} instance for the same car at the same position.
+   */
+  public PlacedCar placedAt(int car, int position) {
+    return placements[car][position];
+  }
+
+  private PlacedCar newPlacement(int car, int position) {
+    final int
+        row = vertical[car] ? position : lanes[car],
+        col = vertical[car] ? lanes[car] : position;
+    return new PlacedCar(ids[car], names[car], vertical[car], lengths[car],
+                         row, col, boardSize);
+  }
+
+  /**
+   *  Returns the interned placement of a car after it moves to a new
+   *  row and column, or a new placement if the car is not one of the
+   *  cars of this layout.
+   */
+  PlacedCar moved(PlacedCar car, int row, int col) {
+    final int i = indexOf(car.getId());
+    if (i < 0 || vertical[i] != car.isVertical()
+        || lengths[i] != car.getLength()
+        || lanes[i] != (car.isVertical() ? car.getCol() : car.getRow())) {
+      return new PlacedCar(car.getId(), car.getName(), car.isVertical(),
+                           car.getLength(), row, col, boardSize);
+    }
+    return placements[i][car.isVertical() ? row : col];
+  }
+
+  /**
+   *  Returns the interned {@link Move} sliding the car at a particular
+   *  index, from a particular position, some distance in a direction.
+   *  The table for each car is filled in on first use.  Should two
+   *  threads race to fill the same entry, one of them gets a distinct
+   *  but equivalent Move, which is harmless since moves are applied
+   *  by car ID and never compared by identity.
+   *
+   *  Moves which could never be valid, across the lane or further
+   *  than the lane allows, are built fresh rather than interned.
+   */
+  Move move(int car, int position, Move.Direction direction, int distance) {
+    final int maxDistance = boardSize-lengths[car];
+    final int dir;
+    if (distance < 1 || distance > maxDistance) {
+      dir = -1;
+    } else if (direction == (vertical[car] ? Move.Direction.UP
+                                           : Move.Direction.LEFT)) {
+      dir = 0;
+    } else if (direction == (vertical[car] ? Move.Direction.DOWN
+                                           : Move.Direction.RIGHT)) {
+      dir = 1;
+    } else {
+      dir = -1;
+    }
+    if (dir < 0) {
+      return new Move(direction, placements[car][position], distance);
+    }
+
+    Move[] table = moves[car];
+    if (table == null) {
+      table = new Move[placements[car].length * 2 * maxDistance];
+      moves[car] = table;
+    }
+    final int slot = (2*position + dir)*maxDistance + distance-1;
+    Move result = table[slot];
+    if (result == null) {
+      result = new Move(direction, placements[car][position], distance);
+      table[slot] = result;
+    }
+    return result;
+  }
+
+  // -----------------------------------------------------------------
+  // Packed encoding of lane positions.
+
+  /**
+   *  Returns the number of bits each car's position takes in a packed
+   *  key.
+   */
+  public int bitsPerCar() { return bitsPerCar; }
+  /**
+   *  Returns the number of <tt>long</tt> words in a packed key for
+   *  boards with this layout.
+   */
+  public int words() { return words; }
+
+  /**
+   *  Encodes the positions of a placement of the cars of this layout.
+   *
+   * @param cars The placement, indexed as in this layout
+   */
+  long[] pack(PlacedCar[] cars) {
+    final long[] key = new long[words];
+    for(int i=0; i<cars.length; i++) {
+      key[wordOf[i]] |= ((long)positionOf(cars[i])) << shiftOf[i];
+    }
+    return key;
+  }
+
+  /**
+   *  Decodes the position of one car from a packed key.
+   */
+  int position(long[] key, int car) {
+    return (int)((key[wordOf[car]] >>> shiftOf[car])
+                 & ((1L<<bitsPerCar)-1));
+  }
+
+  /**
+   *  Returns a copy of a packed key with the position of one car
+   *  changed.
+   */
+  long[] withPosition(long[] key, int car, int position) {
+    final long[] result = Arrays.copyOf(key, key.length);
+    final int shift = shiftOf[car];
+    result[wordOf[car]] =
+        (result[wordOf[car]] & ~(((1L<<bitsPerCar)-1) << shift))
+        | (((long)position) << shift);
+    return result;
+  }
+
+  // -----------------------------------------------------------------
+  // Occupancy bitboards of boards with this layout, as BoardState
+  // keeps them: bit r*n+c of the row board, and bit c*n+r of the
+  // column board, are set when the square at row r and column c is
+  // filled.  The column board starts at the first word after the row
+  // board, so a 6x6 board takes one word for each.
+
+  /**
+   *  Returns the number of <tt>long</tt> words in the occupancy
+   *  bitboards of boards with this layout.
+   */
+  int occupancyWords() { return occupancyWords; }
+
+  /**
+   *  Returns the index of the first bit of the occupancy of a row or
+   *  column; the lane's squares follow it in order.
+   */
+  int occupancyBit(int lane, boolean byRow) {
+    return (byRow ? 0 : columnBits) + lane*boardSize;
+  }
+
+  /**
+   *  Returns the index of the first bit of the occupancy of a car's
+   *  own lane.
+   */
+  int laneBit(int car) { return laneBit[car]; }
+
+  /**
+   *  Returns the index of the bit for a car's lane in the occupancy of
+   *  the first lane crossing it; the bit in the crossing lane at
+   *  position <i>p</i> is {@link #getBoardSize} times <i>p</i> further
+   *  on.
+   */
+  int crossBit(int car) { return crossBit[car]; }
+
+  /**
+   *  Rebuilds the full board state encoded by a packed key.
+   */
+  BoardState unpack(long[] key) {
+    return new BoardState(this, key);
+  }
+
+  // -----------------------------------------------------------------
+  // Zobrist hashing.
+
+  /**
+   *  Returns the Zobrist key for the car at a particular index sitting
+   *  at a particular position along its lane.  The hash of a board is
+   *  the exclusive-or of the keys of all of its cars, so moving one
+   *  car changes the hash by two exclusive-ors.
+   */
+  long zobrist(int car, int position) { return zobrist[car][position]; }
+
+  /**
+   *  Computes the Zobrist hash of a placement of the cars of this
+   *  layout from scratch.
+   */
+  long zobrist(PlacedCar[] cars) {
+    long hash = 0;
+    for(int i=0; i<cars.length; i++) {
+      hash ^= zobrist[i][positionOf(cars[i])];
+    }
+    return hash;
+  }
+
+  /**
+   *  The keys are a fixed function of the board size, car index and
+   *  position (the SplitMix64 finalizer), rather than drawn at random,
+   *  so that two separately-built but identical boards hash the same.
+   */
+  private static long zobristKey(int boardSize, int car, int position) {
+    long z = 0x9E3779B97F4A7C15L
+        * (1 + (((long)boardSize << 40) ^ ((long)car << 20) ^ position));
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  /**
+   *  Two layouts are the same when they place the same cars in the
+   *  same lanes, in the same order, on the same size board.  Car
+   *  names are not compared.
+   */
+  @Override public boolean equals(Object o) {
+    if (this == o) { return true; }
+    if (!(o instanceof BoardLayout)) { return false; }
+    final BoardLayout that = (BoardLayout)o;
+    return boardSize == that.boardSize
+        && Arrays.equals(ids, that.ids)
+        && Arrays.equals(vertical, that.vertical)
+        && Arrays.equals(lengths, that.lengths)
+        && Arrays.equals(lanes, that.lanes);
+  }
+
+  @Override public int hashCode() {
+    return 31*(31*boardSize + Arrays.hashCode(lanes)) + Arrays.hashCode(lengths);
+  }
+}
@@ -8,10 +8,20 @@
 package rushhour.model;
 import java.util.Arrays;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import static rushhour.model.Move.Direction.*;
 
 /**
- *  Model of one state of the Rushhour board.
+ *  Model of one state of the Rushhour board.  A board keeps the
+ *  position of each car along its lane, {@linkplain BoardLayout#pack
+ *  packed} into a few <tt>long</tt> words; bitboards of which squares
+ *  are filled, by row and by column, so that moves are read off with
+ *  shifts and masks; and its Zobrist hash.  Everything else is in the
+ *  {@link BoardLayout} shared by all of the boards reached from the
+ *  same initial board.  A board made by a move patches its parent's
+ *  bitboards rather than rebuilding them, and the placements of the
+ *  cars are worked out from the positions when asked for.
  */
 public class BoardState {
 
@@ -29,9 +39,10 @@ public class BoardState {
    */
   public static final int DEFAULT_OUR_DEFAULT_LENGTH = 2;
 
-  private final PlacedCar[] cars;
-  private final int[][] filled;
-  private final int boardSize;
+  private final BoardLayout layout;
+  private final long[] key;
+  private final long zobrist;
+  private final long[] occupied;
 
   /**
    *  Constructor given a particular placement of cars on the board.
@@ -45,20 +56,88 @@ public class BoardState {
    *  and board size.
    */
   BoardState(PlacedCar[] cars, int boardSize) {
-    this.cars = Arrays.copyOf(cars, cars.length);
-    this.boardSize = boardSize;
-    this.filled = new int[boardSize][boardSize];
+    this(new BoardLayout(cars, boardSize), cars);
+  }
+
+  /**
+   *  Constructor for a placement of the cars of an existing layout.
+   */
+  BoardState(BoardLayout layout, PlacedCar[] cars) {
+    this(layout, layout.pack(cars), layout.zobrist(cars));
+  }
+
+  private BoardState(BoardLayout layout, long[] key, long zobrist) {
+    this(layout, key, zobrist, occupancy(layout, key));
+  }
+
+  /**
+   *  Constructor for the board whose cars sit at the positions of a
+   *  {@linkplain BoardLayout#pack packed} key.  The array is not
+   *  copied, so the caller must not change it afterwards.
+   */
+  BoardState(BoardLayout layout, long[] key) {
+    this(layout, key, zobrist(layout, key));
+  }
+
+  /**
+   *  Constructor for the board which results from moving one car of
+   *  a parent board.  The key, the Zobrist hash and the occupancy
+   *  bitboards are derived from the parent's rather than recomputed.
+   *
+   * @param parent The board before the move
+   * @param car The index of the moved car
+   * @param position The new position of that car along its lane
+   */
+  BoardState(BoardState parent, int car, int position) {
+    this(parent.layout,
+         parent.layout.withPosition(parent.key, car, position),
+         parent.zobrist
+         ^ parent.layout.zobrist(car, parent.position(car))
+         ^ parent.layout.zobrist(car, position),
+         parent.occupancyAfter(car, position));
+  }
+
+  private BoardState(BoardLayout layout, long[] key, long zobrist,
+                     long[] occupied) {
+    this.layout = layout;
+    this.key = key;
+    this.zobrist = zobrist;
+    this.occupied = occupied;
+  }
+
+  private static long zobrist(BoardLayout layout, long[] key) {
+    long hash = 0;
+    for(int i=0; i<layout.placed(); i++) {
+      hash ^= layout.zobrist(i, layout.position(key, i));
+    }
+    return hash;
+  }
+
+  private int position(int car) { return layout.position(key, car); }
+
+  // -----------------------------------------------------------------
+  // The grid of car IDs: filled[r][c] is the ID of the car covering
+  // the square at row r and column c, and the number of cars stands
+  // for empty.  Only printing needs it, so boards do not keep one:
+  // it is built on demand, and a board made by a move copies and
+  // patches nothing but its parent's packed positions and occupancy
+  // bitboards.
+
+  private int[][] grid() {
+    final int boardSize = layout.getBoardSize(), placed = layout.placed();
+    final int[][] filled = new int[boardSize][boardSize];
 
     // Initialize the filled array --- the length of the cars stands
     // for empty.
     for(int i=0; i<boardSize; i++) {
       for(int j=0; j<boardSize; j++) {
-        filled[i][j] = cars.length;
+        filled[i][j] = placed;
       }
     }
 
     // Now add the ID of each car in the spaces they fill.
-    for(final PlacedCar car : cars) {
+    for(int c=0; c<placed; c++) {
+      final PlacedCar car = placement(c);
       final int row = car.getRow(), col = car.getCol();
       for(int i=0; i<car.getLength(); i++) {
         if (car.isVertical()) {
@@ -68,6 +147,77 @@ public class BoardState {
         }
       }
     }
+    return filled;
+  }
+
+  // -----------------------------------------------------------------
+  // Occupancy bitboards, laid out as BoardLayout#occupancyBit says: a
+  // row board and a column board, each with the n squares of a lane
+  // as consecutive bits.  A move patches the moved car's own lane with
+  // one mask, and flips one bit in each crossing lane the car leaves
+  // or enters.
+
+  private static long[] occupancy(BoardLayout layout, long[] key) {
+    final long[] occupied = new long[layout.occupancyWords()];
+    final int boardSize = layout.getBoardSize();
+    for(int i=0; i<layout.placed(); i++) {
+      final int position = layout.position(key, i);
+      final int length = layout.getLength(i);
+      flip(occupied, layout.laneBit(i), (-1L >>> (64-length)) << position);
+      for(int j=position; j<position+length; j++) {
+        flipBit(occupied, layout.crossBit(i) + j*boardSize);
+      }
+    }
+    return occupied;
+  }
+
+  private long[] occupancyAfter(int car, int position) {
+    final long[] result = occupied.clone();
+    final int
+        boardSize = layout.getBoardSize(),
+        length = layout.getLength(car),
+        from = position(car);
+    final long mask = -1L >>> (64-length);
+    flip(result, layout.laneBit(car), (mask << from) ^ (mask << position));
+    final int cross = layout.crossBit(car);
+    for(int j=from; j<from+length; j++) {
+      if (j < position || j >= position+length) {
+        flipBit(result, cross + j*boardSize);
+      }
+    }
+    for(int j=position; j<position+length; j++) {
+      if (j < from || j >= from+length) {
+        flipBit(result, cross + j*boardSize);
+      }
+    }
+    return result;
+  }
+
+  private static void flipBit(long[] words, int bit) {
+    words[bit >>> 6] ^= 1L << bit;
+  }
+
+  /**
+   *  Flips the bits set in a value, placed at some bit index.
+   */
+  private static void flip(long[] words, int bit, long value) {
+    final int word = bit >>> 6, shift = bit & 63;
+    words[word] ^= value << shift;
+    if (shift != 0 && (value >>> (64-shift)) != 0) {
+      words[word+1] ^= value >>> (64-shift);
+    }
+  }
+
+  /**
+   *  Returns some number of bits, starting at some bit index.
+   */
+  private static long read(long[] words, int bit, int count) {
+    final int word = bit >>> 6, shift = bit & 63;
+    long value = words[word] >>> shift;
+    if (shift+count > 64) {
+      value |= words[word+1] << (64-shift);
+    }
+    return value & (-1L >>> (64-count));
   }
 
   /**
@@ -75,20 +225,128 @@ public class BoardState {
    *  family car to escape.
    */
   public boolean isGoalState() {
-    for(final PlacedCar car : cars) {
-      if (car.isTargetCar()) { return car.atGoal(); }
+    for(int i=0; i<layout.placed(); i++) {
+      if (layout.getId(i) == 0) {
+        return !layout.isVertical(i)
+            && position(i)+layout.getLength(i) == layout.getBoardSize();
+      }
     }
     return false;
   }
 
+  /**
+   *  Returns an iterator over every goal board of this board's
+   *  layout: the family car at the exit, and each other car anywhere
+   *  along its lane where it overlaps no other.  The boards are built
+   *  one at a time, by backtracking over the cars in order, so a
+   *  caller which needs only some of them does not pay for the rest.
+   */
+  public Iterator<BoardState> goalStates() {
+    return new GoalStates(layout);
+  }
+
+  private static final class GoalStates implements Iterator<BoardState> {
+    private final BoardLayout layout;
+    private final int target;
+    private final long[] rows;
+    private final int[] positions;
+    private int car;
+    private BoardState next;
+
+    GoalStates(BoardLayout layout) {
+      this.layout = layout;
+      this.target = layout.targetIndex();
+      this.rows = new long[layout.getBoardSize()];
+      this.positions = new int[layout.placed()];
+      Arrays.fill(positions, -1);
+      this.car = (target < 0 || layout.isVertical(target)) ? -1 : 0;
+      this.next = advance();
+    }
+
+    @Override public boolean hasNext() { return next != null; }
+
+    @Override public BoardState next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      final BoardState result = next;
+      next = advance();
+      return result;
+    }
+
+    /**
+     *  Moves on to the next placement of every car, taking up where
+     *  the previous one left off.
+     */
+    private BoardState advance() {
+      final int placed = positions.length;
+      while (car >= 0) {
+        if (positions[car] >= 0) {
+          toggle(car, positions[car]);
+        }
+        final int last = layout.getBoardSize() - layout.getLength(car);
+        int position = positions[car] + 1;
+        if (car == target) {
+          position = position <= last ? last : last+1;
+        }
+        while (position <= last && !fits(car, position)) {
+          position += 1;
+        }
+        if (position > last) {
+          positions[car] = -1;
+          car -= 1;
+          continue;
+        }
+        positions[car] = position;
+        toggle(car, position);
+        if (car == placed-1) {
+          final PlacedCar[] cars = new PlacedCar[placed];
+          for(int i=0; i<placed; i++) {
+            cars[i] = layout.placedAt(i, positions[i]);
+          }
+          return new BoardState(layout, cars);
+        }
+        car += 1;
+      }
+      return null;
+    }
+
+    private boolean fits(int car, int position) {
+      final int lane = layout.getLane(car), length = layout.getLength(car);
+      if (layout.isVertical(car)) {
+        for(int row=position; row<position+length; row++) {
+          if ((rows[row] & (1L << lane)) != 0) { return false; }
+        }
+        return true;
+      }
+      return (rows[lane] & (((1L << length)-1) << position)) == 0;
+    }
+
+    private void toggle(int car, int position) {
+      final int lane = layout.getLane(car), length = layout.getLength(car);
+      if (layout.isVertical(car)) {
+        for(int row=position; row<position+length; row++) {
+          rows[row] ^= 1L << lane;
+        }
+      } else {
+        rows[lane] ^= ((1L << length)-1) << position;
+      }
+    }
+  }
+
   /**
    *  Returns the size of this (square) board.
    */
-  public int getBoardSize() { return boardSize; }
+  public int getBoardSize() { return layout.getBoardSize(); }
+  /**
+   *  Returns the layout shared by this board and every board reached
+   *  from it by moves.
+   */
+  public BoardLayout getLayout() { return layout; }
   /**
    *  Returns the number of cars placed on the board.
    */
-  public int placed() { return cars.length; }
+  public int placed() { return layout.placed(); }
   /**
    *  Returns the placement of a particular car.
    *
@@ -96,7 +354,7 @@ public class BoardState {
    * {@link #placed}
    * @return The placement record for that car index
    */
-  public PlacedCar placement(int i) { return cars[i]; }
+  public PlacedCar placement(int i) { return layout.placedAt(i, position(i)); }
   /**
    *  Returns whether the board has a filled space at a particular row
    *  or column
@@ -108,7 +366,23 @@ public class BoardState {
    * from 0 up to (but including) {@link #getBoardSize}.
    */
   public boolean filledAt(int row, int col) {
-    return filled[row][col] < cars.length;
+    return read(occupied, layout.occupancyBit(row, true) + col, 1) != 0;
+  }
+  /**
+   *  Returns the occupancy of a row as a bit mask: bit <i>c</i> is set
+   *  when the square in column <i>c</i> is filled.
+   */
+  public long rowOccupancy(int row) {
+    return read(occupied, layout.occupancyBit(row, true),
+                layout.getBoardSize());
+  }
+  /**
+   *  Returns the occupancy of a column as a bit mask: bit <i>r</i> is
+   *  set when the square in row <i>r</i> is filled.
+   */
+  public long columnOccupancy(int col) {
+    return read(occupied, layout.occupancyBit(col, false),
+                layout.getBoardSize());
   }
   /**
    *  Returns a container from which the valid moves at this position
@@ -116,35 +390,114 @@ public class BoardState {
    */
   public Iterable<Move> getValidMoves() {
     final ArrayList<Move> validMoves = new ArrayList<>();
+    forEachMove((car, direction) -> validMoves.add(move(car, direction)));
+    return validMoves;
+  }
 
-    for(final PlacedCar car : cars) {
-      final int row = car.getRow(), col = car.getCol();
-      if (car.isVertical()) {
-        final int
-            before = car.getRow()-1,
-            after = car.getRow()+car.getLength();
-        if (0<=before && !filledAt(before, col)) {
-          validMoves.add(new Move(UP, car));
-        }
-        if (after<boardSize && !filledAt(after, col)) {
-          validMoves.add(new Move(DOWN, car));
-        }
-      } else {
-        final int
-            before = car.getCol()-1,
-            after = car.getCol()+car.getLength();
-        if (0<=before && !filledAt(row, before)) {
-          validMoves.add(new Move(LEFT, car));
+  /**
+   *  Returns a container from which the valid moves at this position
+   *  under a particular {@linkplain Move.Model move model} may be
+   *  iterated.
+   */
+  public Iterable<Move> getValidMoves(Move.Model model) {
+    if (model == Move.Model.STEP) {
+      return getValidMoves();
+    }
+    final ArrayList<Move> validMoves = new ArrayList<>();
+    forEachSlide((car, direction, distance) ->
+                 validMoves.add(move(car, direction, distance)));
+    return validMoves;
+  }
+
+  /**
+   *  Returns the move shifting the car at a particular index one
+   *  square in a direction.  Moves are interned per layout, so this
+   *  allocates nothing once the move has been seen.  The move is not
+   *  checked for validity until it is {@linkplain Move#apply applied}.
+   */
+  public Move move(int car, Move.Direction direction) {
+    return move(car, direction, 1);
+  }
+
+  /**
+   *  Returns the move sliding the car at a particular index some
+   *  number of squares in a direction.
+   *
+   * @see #move(int, Move.Direction)
+   */
+  public Move move(int car, Move.Direction direction, int distance) {
+    return layout.move(car, position(car), direction, distance);
+  }
+
+  /**
+   *  Returns the board after sliding the car at a particular index
+   *  some number of squares in a direction, as {@link Move#apply}
+   *  does, but without checking that the move is valid.  It is meant
+   *  for the moves which {@link #forEachMove} and {@link
+   *  #forEachSlide} visit, which are valid already.
+   */
+  public BoardState afterMove(int car, Move.Direction direction,
+                              int distance) {
+    final int step = direction.getRowChange() + direction.getColChange();
+    return new BoardState(this, car, position(car) + distance*step);
+  }
+
+  /**
+   *  Passes each valid move at this position to a visitor, in the
+   *  same order as {@link #getValidMoves}.  Each car's moves are read
+   *  off the occupancy mask of its lane, and nothing is allocated.
+   */
+  public void forEachMove(MoveVisitor visitor) {
+    final int boardSize = layout.getBoardSize();
+    for(int i=0; i<layout.placed(); i++) {
+      final boolean vertical = layout.isVertical(i);
+      final int
+          position = position(i),
+          after = position+layout.getLength(i);
+      final long lane = read(occupied, layout.laneBit(i), boardSize);
+      if (position > 0 && (lane & (1L << (position-1))) == 0) {
+        visitor.visit(i, vertical ? UP : LEFT);
+      }
+      if (after < boardSize && (lane & (1L << after)) == 0) {
+        visitor.visit(i, vertical ? DOWN : RIGHT);
+      }
+    }
+  }
+
+  /**
+   *  Passes each valid slide at this position to a visitor: for each
+   *  car and direction, every distance from one square up to the
+   *  number of free squares in front of the car.  The free run is
+   *  read off the occupancy mask of the car's lane with one
+   *  leading- or trailing-zero count, and nothing is allocated.
+   */
+  public void forEachSlide(SlideVisitor visitor) {
+    final int boardSize = layout.getBoardSize();
+    for(int i=0; i<layout.placed(); i++) {
+      final boolean vertical = layout.isVertical(i);
+      final int
+          position = position(i),
+          after = position+layout.getLength(i);
+      final long lane = read(occupied, layout.laneBit(i), boardSize);
+      if (position > 0) {
+        final int free
+            = Math.min(position,
+                       Long.numberOfLeadingZeros(lane << (64-position)));
+        for(int d=1; d<=free; d++) {
+          visitor.visit(i, vertical ? UP : LEFT, d);
         }
-        if (after<boardSize && !filledAt(row, after)) {
-          validMoves.add(new Move(RIGHT, car));
+      }
+      if (after < boardSize) {
+        final int free
+            = Math.min(boardSize-after,
+                       Long.numberOfTrailingZeros(lane >>> after));
+        for(int d=1; d<=free; d++) {
+          visitor.visit(i, vertical ? DOWN : RIGHT, d);
         }
       }
     }
-
-    return validMoves;
   }
-  
+
   /**
    *  Check whether a particular series of moves is a correct solution
    *  from this position.
@@ -209,12 +562,13 @@ public class BoardState {
    */
   public void toString(final StringBuilder sb, final String ind) {
     String sep = "";
-    for(final int[] row : filled) {
+    final int placed = layout.placed();
+    for(final int[] row : grid()) {
       sb.append(sep);
       sb.append(ind);
       for(final int ch : row) {
         if (ch == 0) { sb.append("*"); }
-        else if (ch == cars.length) { sb.append("."); }
+        else if (ch == placed) { sb.append("."); }
         else if (ch > 61) { sb.append((char)(128+ch-62)); }
         else if (ch > 35) { sb.append((char)(65+ch-36)); }
         else if (ch > 9) { sb.append((char)(97+ch-10)); }
@@ -227,24 +581,67 @@ public class BoardState {
 
   /**
    *  Checks that two boards have the same cars in the same places.
+   *  Boards are compared by value, so boards reached by different
+   *  sequences of moves are equal when their cars are placed alike.
+   *  Boards whose hashes differ are rejected without looking at the
+   *  cars, and otherwise the packed positions are compared, and the
+   *  layouts unless they are shared.
    */
   @Override public boolean equals(Object o) {
+    if (this == o) { return true; }
     if (!(o instanceof BoardState)) { return false; }
     final BoardState that = (BoardState)o;
 
-    if (placed() != that.placed()) { return false; }
-    for(int i=0; i<placed(); i++) {
-      if (placement(i) != that.placement(i)) { return false; }
-    }
-    return true;
+    return zobrist == that.zobrist
+        && Arrays.equals(key, that.key)
+        && (layout == that.layout || layout.equals(that.layout));
   }
 
   /**
-   *  Output representations are unique enough, so just build and
-   *  return its hash code.
+   *  Folds the {@linkplain #zobristHash Zobrist hash} down to an
+   *  <tt>int</tt>.
    */
   @Override public int hashCode() {
-    return toString("").hashCode();
+    return (int)(zobrist ^ (zobrist >>> 32));
+  }
+
+  /**
+   *  Returns the 64-bit Zobrist hash of this board.  It is computed
+   *  once when the board is built, and for boards built by {@link
+   *  Move#apply} it is derived from the parent board's hash.
+   */
+  public long zobristHash() { return zobrist; }
+
+  /**
+   *  Returns a 64-bit fingerprint of this board, for explored sets
+   *  which track the boards reached from one initial board.  When the
+   *  layout {@linkplain BoardLayout#words packs} into a single word,
+   *  that word is the fingerprint, and no two boards of the layout
+   *  share it.  Otherwise the fingerprint is the {@linkplain
+   *  #zobristHash Zobrist hash}, and {@link #fingerprintKey} tells
+   *  apart boards which share it.
+   */
+  public long fingerprint() {
+    return key.length == 1 ? key[0] : zobrist;
+  }
+
+  /**
+   *  Returns the key which identifies this board exactly when its
+   *  {@linkplain #fingerprint fingerprint} does not, or
+   *  <tt>null</tt> when the fingerprint alone is exact.  The key is
+   *  this board's own array, not a copy, and must not be changed.
+   */
+  public long[] fingerprintKey() {
+    return key.length == 1 ? null : key;
+  }
+
+  /**
+   *  Returns the compact encoding of this board, which keeps only the
+   *  position of each car along its lane.  The two share the packed
+   *  key, so this costs one small object.
+   */
+  public PackedBoardState pack() {
+    return new PackedBoardState(layout, key);
   }
 
   /**
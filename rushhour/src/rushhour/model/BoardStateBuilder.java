@@ -9,7 +9,9 @@ package rushhour.model;
 import java.util.Arrays;
 import java.util.ArrayList;
 import java.util.Random;
+import search.ExploredSets;
 import search.SearchFailureException;
+import rushhour.BoardNode;
 import rushhour.BreadthFirstFinder;
 
 public class BoardStateBuilder {
@@ -172,10 +174,45 @@ public class BoardStateBuilder {
   }
 
   public boolean solvable() {
-    final BreadthFirstFinder finder = new BreadthFirstFinder();
+    final BreadthFirstFinder finder = solvabilityFinder != null
+        ? solvabilityFinder : new BreadthFirstFinder();
     return finder.solvable(board());
   }
 
+  private BreadthFirstFinder solvabilityFinder = null;
+
+  /**
+   *  Selects the finder which {@link #solvable} uses to check boards,
+   *  by default a new exact {@link BreadthFirstFinder} for each check.
+   */
+  public BoardStateBuilder checkSolvabilityWith(BreadthFirstFinder finder) {
+    this.solvabilityFinder = finder;
+    return this;
+  }
+
+  /**
+   *  Checks solvability with a {@linkplain
+   *  ExploredSets#trackByBloomFilter Bloom filter} in place of an
+   *  exact set of boards already reached, which takes much less
+   *  memory.  A board found solvable always is, but with small
+   *  probability a solvable board is taken to be unsolvable.
+   *
+   * @param expectedStates The number of boards a check is expected to
+   * reach
+   *
+   * @param falsePositiveRate The acceptable probability of omitting a
+   * new board once <tt>expectedStates</tt> have been reached
+   */
+  public BoardStateBuilder approximateSolvability(long expectedStates,
+                                                  double falsePositiveRate) {
+    return checkSolvabilityWith
+        (new BreadthFirstFinder
+         (Move.Model.STEP,
+          ExploredSets.trackByBloomFilter
+              ((BoardNode node) -> node.getState().fingerprint(),
+               expectedStates, falsePositiveRate)));
+  }
+
   public int addCarsWhileSolvable() {
     if (!solvable()) {
       return -1;
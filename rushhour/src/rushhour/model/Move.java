@@ -12,24 +12,37 @@ public class Move {
 
   private final Direction direction;
   private final PlacedCar car;
+  private final int distance;
 
   public Move(Direction direction, PlacedCar car) {
+    this(direction, car, 1);
+  }
+
+  /**
+   *  Constructor for a move which slides a car some number of
+   *  squares in one go.
+   */
+  public Move(Direction direction, PlacedCar car, int distance) {
     this.direction = direction;
     this.car = car;
+    this.distance = distance;
   }
 
   public Direction getDirection() { return direction; }
   public PlacedCar getCar() { return car; }
+  /** Returns the number of squares this move slides the car. */
+  public int getDistance() { return distance; }
 
   public BoardState apply(BoardState before) {
-    final int placed = before.placed();
-    final PlacedCar[] newPlacements = new PlacedCar[placed];
-    for(int i=0; i<placed; i++) {
-      final PlacedCar thisCar = before.placement(i);
-      newPlacements[i] = (car == thisCar)
-          ? direction.apply(thisCar,before) : thisCar;
+    final int index
+        = (car == null) ? -1 : before.getLayout().indexOf(car.getId());
+    if (index < 0) {
+      return before;
     }
-    return new BoardState(newPlacements, before.getBoardSize());
+    return new BoardState(before, index,
+                          BoardLayout.positionOf
+                              (direction.apply(before.placement(index), before,
+                                               distance)));
   }
 
   @Override public String toString() {
@@ -38,7 +51,8 @@ public class Move {
     } else if (direction == null) {
       return "no-op for " + car.getName();
     } else {
-      return "move " + car.getName() + " " + direction.toString();
+      return "move " + car.getName() + " " + direction.toString()
+          + (distance == 1 ? "" : " " + distance);
     }
   }
 
@@ -74,31 +88,69 @@ public class Move {
     public int getColChange() { return dCol; }
     @Override public String toString() { return name; }
 
+    /**
+     *  Returns the direction which undoes a move in this direction.
+     */
+    public Direction opposite() {
+      switch (this) {
+        case UP: return DOWN;
+        case DOWN: return UP;
+        case LEFT: return RIGHT;
+        case RIGHT: return LEFT;
+        default: return NONE;
+      }
+    }
+
     public PlacedCar apply(PlacedCar car, BoardState before) {
+      return apply(car, before, 1);
+    }
+
+    /**
+     *  Returns the placement of a car after sliding it a number of
+     *  squares in this direction.  Every square it passes over must
+     *  be free.
+     */
+    public PlacedCar apply(PlacedCar car, BoardState before, int distance) {
       final int
           boardSize = before.getBoardSize(),
-          newRow = dRow + car.getRow(),
-          newCol = dCol + car.getCol();
-      if (newRow<0 || newRow>=boardSize || newCol<0 || newCol>=boardSize) {
+          newRow = dRow*distance + car.getRow(),
+          newCol = dCol*distance + car.getCol(),
+          lastRow = newRow + (car.isVertical() ? car.getLength()-1 : 0),
+          lastCol = newCol + (car.isVertical() ? 0 : car.getLength()-1);
+      if (newRow<0 || lastRow>=boardSize || newCol<0 || lastCol>=boardSize) {
         throw new IllegalMoveException(this, car);
-      } else if (before.filledAt(impactFor(dRow, car.getRow(), car),
-                                 impactFor(dCol, car.getCol(), car))) {
-        throw new MoveCollisionException(this, car, before);
+      }
+      for(int step=1; step<=Math.max(1, distance); step++) {
+        if (before.filledAt(impactFor(dRow*step, car.getRow(), car),
+                            impactFor(dCol*step, car.getCol(), car))) {
+          throw new MoveCollisionException(this, car, before);
+        }
       }
 
-      return new PlacedCar(car.getId(), car.getName(), car.isVertical(),
-                           car.getLength(), newRow, newCol,
-                           before.getBoardSize());
+      return before.getLayout().moved(car, newRow, newCol);
     }
 
+    /**
+     *  Returns the row or column of the square a car newly covers
+     *  when shifted <tt>delta</tt> squares from <tt>base</tt>.
+     */
     public static int impactFor(int delta, int base, PlacedCar car) {
       if (delta <= 0) {
         return base + delta;
       } else {
-        return base + car.getLength();
+        return base + car.getLength() - 1 + delta;
       }
     }
   };
 
+  /**
+   *  The two ways of counting moves.  Under {@link #STEP} a move
+   *  shifts one car by one square, so sliding a car three squares
+   *  takes three moves.  Under {@link #SLIDE} a move slides one car
+   *  any number of free squares, the usual way of counting moves for
+   *  published Rush Hour puzzles.
+   */
+  public static enum Model { STEP, SLIDE };
+
   public static final Move NONE = new Move(Direction.NONE, null);
 }
@@ -0,0 +1,27 @@
+// Rushhour AI assignment
+//
+// Description: Sample Rushhour boards
+// Date: December 2020
+// Author: John Maraist
+
+
+package rushhour.model;
+
+/**
+ *  Callback receiving the valid moves of a board from {@link
+ *  BoardState#forEachMove forEachMove}, one at a time and without any
+ *  intermediate collection or {@link Move} objects.
+ */
+public interface MoveVisitor {
+
+  /**
+   *  Called once for each valid move.
+   *
+   * @param car The index of the car which can move, as for {@link
+   * BoardState#placement}
+   *
+   * @param direction The direction in which that car can move one
+   * square
+   */
+  public void visit(int car, Move.Direction direction);
+}
@@ -0,0 +1,104 @@
+// Rushhour AI assignment
+//
+// Description: Sample Rushhour boards
+// Date: December 2020
+// Author: John Maraist
+
+
+package rushhour.model;
+import java.util.Arrays;
+
+/**
+ *  Compact form of a {@link BoardState}, for when many states must be
+ *  kept resident.  Only the position of each car along its lane is
+ *  stored, packed into a few <tt>long</tt> words as described in
+ *  {@link BoardLayout}; everything else is in the layout, which is
+ *  shared by all of the states reached from the same initial board.
+ *  A standard 6x6 board packs into a single word.
+ *
+ *  Use {@link BoardState#pack} to build one, and {@link #unpack} to
+ *  get the full board back.
+ */
+public final class PackedBoardState {
+
+  private final BoardLayout layout;
+  private final long[] key;
+
+  PackedBoardState(BoardLayout layout, long[] key) {
+    this.layout = layout;
+    this.key = key;
+  }
+
+  /**
+   *  Rebuilds a packed state from the words of its key, as {@link
+   *  #toLongArray} returns them, for states which have been kept
+   *  outside of memory.
+   *
+   * @throws IllegalArgumentException if the key is not as long as the
+   * layout packs into
+   */
+  public static PackedBoardState of(BoardLayout layout, long[] key) {
+    if (key.length != layout.words()) {
+      throw new IllegalArgumentException
+          ("Key of " + key.length + " words for a layout of "
+           + layout.words());
+    }
+    return new PackedBoardState(layout, Arrays.copyOf(key, key.length));
+  }
+
+  /**
+   *  Returns the layout shared by this and related boards.
+   */
+  public BoardLayout getLayout() { return layout; }
+  /**
+   *  Returns the number of <tt>long</tt> words in this key.
+   */
+  public int words() { return key.length; }
+  /**
+   *  Returns one word of the packed key.
+   */
+  public long word(int i) { return key[i]; }
+  /**
+   *  Returns a copy of the packed key.
+   */
+  public long[] toLongArray() { return Arrays.copyOf(key, key.length); }
+
+  /**
+   *  Returns the position of the car at a particular index along its
+   *  lane.
+   *
+   * @see BoardLayout#positionOf
+   */
+  public int position(int car) { return layout.position(key, car); }
+
+  /**
+   *  Checks whether this state solves the puzzle by allowing the
+   *  family car to escape.
+   */
+  public boolean isGoalState() {
+    final int target = layout.targetIndex();
+    return target >= 0 && !layout.isVertical(target)
+        && position(target)+layout.getLength(target) == layout.getBoardSize();
+  }
+
+  /**
+   *  Rebuilds the full board state.
+   */
+  public BoardState unpack() { return layout.unpack(key); }
+
+  @Override public boolean equals(Object o) {
+    if (!(o instanceof PackedBoardState)) { return false; }
+    final PackedBoardState that = (PackedBoardState)o;
+    return Arrays.equals(key, that.key) && layout.equals(that.layout);
+  }
+
+  @Override public int hashCode() {
+    long h = 0;
+    for(final long word : key) {
+      h = 31*h + word;
+    }
+    return (int)(h ^ (h >>> 32));
+  }
+
+  @Override public String toString() { return unpack().toString(); }
+}
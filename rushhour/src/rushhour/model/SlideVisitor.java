@@ -0,0 +1,29 @@
+// Rushhour AI assignment
+//
+// Description: Sample Rushhour boards
+// Date: December 2020
+// Author: John Maraist
+
+
+package rushhour.model;
+
+/**
+ *  Callback receiving the valid slides of a board from {@link
+ *  BoardState#forEachSlide forEachSlide}, one at a time and without
+ *  any intermediate collection or {@link Move} objects.
+ */
+public interface SlideVisitor {
+
+  /**
+   *  Called once for each valid slide.
+   *
+   * @param car The index of the car which can move, as for {@link
+   * BoardState#placement}
+   *
+   * @param direction The direction in which that car can slide
+   *
+   * @param distance The number of squares the car slides, at least
+   * one
+   */
+  public void visit(int car, Move.Direction direction, int distance);
+}
@@ -15,6 +15,12 @@ import java.util.function.Supplier;
  *  prioritization formula <i>f(n) = g(n)+h(n)</i>, still leaving the
  *  exact structure of the frontier as a configurable option.
  *
+ *  Optionally the heuristic is weighted, with <i>f(n) =
+ *  g(n)+w&middot;h(n)</i> for some <i>w</i> &gt; 1.  Weighted A*
+ *  usually expands far fewer nodes, and with a consistent heuristic
+ *  the solution it returns costs at most <i>w</i> times the optimal
+ *  cost.
+ *
  * @param <State> Type representing elements of the search space.
  * @param <Node> Type representing nodes in the search tree.  Each
  * node typically contains a reference to a State element.
@@ -24,10 +30,11 @@ import java.util.function.Supplier;
 public class AStarFrontierSearcher
     <State,
          Node extends SearchTreeNode<Node,State> & KnowsOwnCost,
-         Frontier extends Frontiers.PriorityQueue<Node>>
+         Frontier extends FrontierStructure<Node>>
     extends PriorityQueueSearcher<State, Node, Frontier> {
 
   private final Function<Node,Double> heuristic;
+  private final double weight;
 
   /**
    * Constructor for this class which does not maintain an explored
@@ -58,17 +65,52 @@ public class AStarFrontierSearcher
          ExploredSets.doNotTrack(), initializer);
   }
 
+  /**
+   *  Constructor for this class with an unweighted heuristic.
+   *
+   * @param goalTest A boolean-returning function checking whether a
+   * tree node contains a goal state.
+   *
+   * @param heuristic Heuristic function for this search application.
+   *
+   * @param frontierMetafactory This function maps a {@link
+   * Comparator} for tree nodes to a {@link
+   * java.util.function.Supplier Supplier} of new, empty Frontier
+   * instances.
+   *
+   * @param exploredSetFactory Structure used to manage adding
+   * elements to the frontier, in particular for avoiing duplication.
+   *
+   * @param initializer Creates an initial tree node from a search
+   * space element.
+   */
+  public AStarFrontierSearcher
+      (final Predicate<Node> goalTest,
+       final Function<Node,Double> heuristic,
+       final Function<Comparator<Node>,
+                      Supplier<? extends Frontier>> frontierMetafactory,
+       final Function<Frontier, ExploredSet<Node>> exploredSetFactory,
+       final Function<State,Node> initializer) {
+    this(goalTest, heuristic, 1.0, frontierMetafactory,
+         exploredSetFactory, initializer);
+  }
+
   /**
    *  Primary constructor for this class; other constructor relay to
-   *  this one.  This constructor encodes A*'s <i>f(n) = g(n)+h(n)</i>
-   *  formula into the {@link Comparator} behind the underlying
-   *  priority queue.
+   *  this one.  This constructor encodes A*'s <i>f(n) =
+   *  g(n)+w&middot;h(n)</i> formula into the {@link Comparator} behind
+   *  the underlying priority queue.  For nodes implementing {@link
+   *  KnowsOwnPriority} the formula is evaluated once per node, and
+   *  the comparator reads the stored result.
    *
    * @param goalTest A boolean-returning function checking whether a
    * tree node contains a goal state.
    *
    * @param heuristic Heuristic function for this search application.
    *
+   * @param weight The weight <i>w</i> of the heuristic, 1 for plain
+   * A*.
+   *
    * @param frontierMetafactory This function maps a {@link
    * Comparator} for tree nodes to a {@link
    * java.util.function.Supplier Supplier} of new, empty Frontier
@@ -87,6 +129,7 @@ public class AStarFrontierSearcher
   public AStarFrontierSearcher
       (final Predicate<Node> goalTest,
        final Function<Node,Double> heuristic,
+       final double weight,
        final Function<Comparator<Node>,
                       Supplier<? extends Frontier>> frontierMetafactory,
        final Function<Frontier, ExploredSet<Node>> exploredSetFactory,
@@ -94,13 +137,54 @@ public class AStarFrontierSearcher
     super(() -> GoalCheckers.firstGoal(goalTest),
           new Comparator<Node>() {
             @Override public int compare(Node n1, Node n2) {
-              final double diff = (n2.getCost() + heuristic.apply(n2)
-                                   - n1.getCost() - heuristic.apply(n1));
+              final double diff = (priority(n2, heuristic, weight)
+                                   - priority(n1, heuristic, weight));
               return diff<0 ? 1 : diff>0 ? -1 : 0;
             }
           },
           frontierMetafactory, exploredSetFactory, initializer);
+    if (!(weight >= 0)) {
+      throw new IllegalArgumentException("Bad heuristic weight " + weight);
+    }
     this.heuristic = heuristic;
+    this.weight = weight;
+  }
+
+  /**
+   *  Returns the weight <i>w</i> of the heuristic in this searcher's
+   *  <i>f(n) = g(n)+w&middot;h(n)</i>.
+   */
+  public double getWeight() { return weight; }
+
+  /**
+   *  Returns the <i>f(n)</i> value of a node: the value the node
+   *  {@linkplain KnowsOwnPriority stores}, if it stores one, and
+   *  otherwise <i>g(n)+w&middot;h(n)</i> computed afresh.
+   */
+  private static <N extends KnowsOwnCost> double
+      priority(N node, Function<N,Double> heuristic, double weight) {
+    if (node instanceof KnowsOwnPriority) {
+      final double priority = ((KnowsOwnPriority)node).getPriority();
+      if (!Double.isNaN(priority)) {
+        return priority;
+      }
+    }
+    return node.getCost() + weight*heuristic.apply(node);
+  }
+
+  /**
+   *  Evaluates the heuristic once for each node which {@linkplain
+   *  KnowsOwnPriority can store it}, and records <i>h(n)</i> and
+   *  <i>f(n)</i> in the node, so that the frontier's comparisons need
+   *  not evaluate the heuristic again.
+   */
+  @Override protected void beforeFrontierAddition(Node node) {
+    if (node instanceof KnowsOwnPriority) {
+      final double estimate = heuristic.apply(node);
+      ((KnowsOwnPriority)node).setPriority(estimate,
+                                           node.getCost()
+                                           + weight*estimate);
+    }
   }
 
   /** {@inheritDoc} */
@@ -126,7 +210,7 @@ public class AStarFrontierSearcher
    */
   public static class SimpleNodes
       <State, Frontier extends
-              Frontiers.PriorityQueue<Nodes.SimpleTreeCostNode<State>>>
+              FrontierStructure<Nodes.SimpleTreeCostNode<State>>>
       extends AStarFrontierSearcher
               <State, Nodes.SimpleTreeCostNode<State>, Frontier> {
     /**
@@ -207,7 +291,7 @@ public class AStarFrontierSearcher
    */
   public static class PathNodes
       <State, Frontier extends
-              Frontiers.PriorityQueue<Nodes.SimpleTreePathCostNode<State>>>
+              FrontierStructure<Nodes.SimpleTreePathCostNode<State>>>
       extends AStarFrontierSearcher
               <State, Nodes.SimpleTreePathCostNode<State>, Frontier> {
     /**
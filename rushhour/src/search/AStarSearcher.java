@@ -76,6 +76,71 @@ public class AStarSearcher
           exploredSetFactory, initializer);
   }
 
+  /**
+   *  Constructor for weighted A*, ordering the frontier by <i>f(n) =
+   *  g(n)+w&middot;h(n)</i>.
+   *
+   * @param goalTest A boolean-returning function checking whether a
+   * tree node contains a goal state.
+   *
+   * @param heuristic Heuristic function for this search application.
+   *
+   * @param weight The weight <i>w</i> of the heuristic.
+   *
+   * @param exploredSetFactory Structure used to manage adding
+   * elements to the frontier, in particular for avoiing duplication.
+   *
+   * @param initializer Creates an initial tree node from a search
+   * space element.
+   */
+  public AStarSearcher
+      (final Predicate<Node> goalTest,
+       final Function<Node,Double> heuristic,
+       final double weight,
+       final Function<Frontiers.PriorityQueue<Node>,
+                      ExploredSet<Node>> exploredSetFactory,
+       final Function<State,Node> initializer) {
+    super(goalTest, heuristic, weight,
+          (cmp) -> Frontiers.priorityQueueFactory(cmp),
+          exploredSetFactory, initializer);
+  }
+
+  /**
+   *  Constructor for weighted A* with a frontier which extends the
+   *  {@linkplain Frontiers.PriorityQueue basic priority queue}, such
+   *  as a {@linkplain Frontiers.SpillingPriorityQueue spilling} one.
+   *
+   * @param goalTest A boolean-returning function checking whether a
+   * tree node contains a goal state.
+   *
+   * @param heuristic Heuristic function for this search application.
+   *
+   * @param weight The weight <i>w</i> of the heuristic.
+   *
+   * @param frontierMetafactory This function maps a {@link
+   * Comparator} for tree nodes to a {@link Supplier} of new, empty
+   * frontiers ordered by it.
+   *
+   * @param exploredSetFactory Structure used to manage adding
+   * elements to the frontier, in particular for avoiing duplication.
+   *
+   * @param initializer Creates an initial tree node from a search
+   * space element.
+   */
+  public AStarSearcher
+      (final Predicate<Node> goalTest,
+       final Function<Node,Double> heuristic,
+       final double weight,
+       final Function<Comparator<Node>,
+                      Supplier<? extends Frontiers.PriorityQueue<Node>>>
+           frontierMetafactory,
+       final Function<Frontiers.PriorityQueue<Node>,
+                      ExploredSet<Node>> exploredSetFactory,
+       final Function<State,Node> initializer) {
+    super(goalTest, heuristic, weight, frontierMetafactory,
+          exploredSetFactory, initializer);
+  }
+
   /**
    *  A specialization of {@link AStarSearcher} to use a minimal
    *  implementation of unrelated search tree nodes (with a state and
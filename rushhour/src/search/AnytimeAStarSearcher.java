@@ -0,0 +1,388 @@
+// Rushhour AI assignment
+//
+// Description: Sample Rushhour boards
+// Date: December 2020
+// Author: John Maraist
+
+package search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.Predicate;
+
+/**
+ *  Anytime repairing A* (ARA*, Likhachev, Gordon and Thrun 2003): a
+ *  series of weighted A* searches, ordered by <i>f(n) =
+ *  g(n)+w&middot;h(n)</i>, in which the weight <i>w</i> starts high,
+ *  so that a first solution is found quickly, and is lowered towards
+ *  1 after each search, so that each solution is at least as good as
+ *  the last.  Each solution is passed to a callback with a proven
+ *  bound on how far its cost can be from the optimal cost: a bound of
+ *  1.5 means that no solution costs less than two thirds as much.
+ *  The caller can stop at whatever bound is good enough.
+ *
+ *  The searches are not independent.  The table of states reached,
+ *  each with the cheapest node found for it, is kept from one search
+ *  to the next, as is the frontier, so that each search only repairs
+ *  the last one.  Within one search each state is expanded at most
+ *  once; a state which is reached more cheaply after being expanded
+ *  is set aside, and rejoins the frontier in the next search.  Nodes
+ *  which could only lead to solutions no cheaper than the best so far
+ *  are dropped.  Goals are recognized when they are generated.
+ *
+ *  The bounds assume a consistent heuristic; with an inadmissible one
+ *  they mean nothing.
+ *
+ * @param <State> Type representing elements of the search space.
+ * @param <Node> Type representing nodes in the search tree.  Each
+ * node typically contains a reference to a State element.
+ */
+public class AnytimeAStarSearcher
+    <State, Node extends SearchTreeNode<Node,State> & KnowsOwnCost> {
+
+  /**
+   *  The default weight of the heuristic in the first search.
+   */
+  public static final double DEFAULT_INITIAL_WEIGHT = 3.0;
+
+  /**
+   *  The default amount by which the weight is lowered after each
+   *  search.
+   */
+  public static final double DEFAULT_WEIGHT_STEP = 0.5;
+
+  private final Predicate<Node> goalTest;
+  private final Function<Node,Double> heuristic;
+  private final Function<State,Node> initializer;
+  private final double initialWeight, weightStep;
+
+  // The state of the current search.
+  private HashMap<State,Record<Node>> table;
+  private PriorityQueue<Entry<Node>> open;
+  private ArrayList<Record<Node>> inconsistent;
+  private Node incumbent;
+  private double weight;
+  private int iteration;
+
+  private long
+      addedToFrontier=-1,
+      expandedFromFrontier=-1,
+      iterations=-1,
+      solutions=-1;
+  private double bound=-1;
+
+  /**
+   * Constructor for this class with the {@linkplain
+   * #DEFAULT_INITIAL_WEIGHT default} weight schedule.
+   *
+   * @param goalTest A boolean-returning function checking whether a
+   * tree node contains a goal state.
+   *
+   * @param heuristic Heuristic function for this search application.
+   *
+   * @param initializer Creates an initial tree node from a search
+   * space element.
+   */
+  public AnytimeAStarSearcher(Predicate<Node> goalTest,
+                              Function<Node,Double> heuristic,
+                              Function<State,Node> initializer) {
+    this(goalTest, heuristic, initializer,
+         DEFAULT_INITIAL_WEIGHT, DEFAULT_WEIGHT_STEP);
+  }
+
+  /**
+   * Primary constructor for this class.
+   *
+   * @param goalTest A boolean-returning function checking whether a
+   * tree node contains a goal state.
+   *
+   * @param heuristic Heuristic function for this search application.
+   *
+   * @param initializer Creates an initial tree node from a search
+   * space element.
+   *
+   * @param initialWeight The weight of the heuristic in the first
+   * search, at least 1.
+   *
+   * @param weightStep The amount by which the weight is lowered after
+   * each search, until it reaches 1.
+   */
+  public AnytimeAStarSearcher(Predicate<Node> goalTest,
+                              Function<Node,Double> heuristic,
+                              Function<State,Node> initializer,
+                              double initialWeight, double weightStep) {
+    if (!(initialWeight >= 1) || !(weightStep > 0)) {
+      throw new IllegalArgumentException
+          ("Bad weight schedule " + initialWeight + ", " + weightStep);
+    }
+    this.goalTest = goalTest;
+    this.heuristic = heuristic;
+    this.initializer = initializer;
+    this.initialWeight = initialWeight;
+    this.weightStep = weightStep;
+  }
+
+  /**
+   *  Searches until a solution is proven optimal.
+   *
+   * @param initial The starting element
+   * @return A goal node of least cost
+   * @throws SearchFailureException if no goal is reachable
+   */
+  public Node search(State initial) throws SearchFailureException {
+    return search(initial, 1.0, (node, bound) -> { });
+  }
+
+  /**
+   *  Searches until a solution is proven to be within some factor of
+   *  the optimal cost, reporting each solution found along the way.
+   *
+   * @param initial The starting element
+   * @param acceptable The bound which is good enough: 1 to search
+   * until a solution is proven optimal, or the initial weight or more
+   * to take the first solution found
+   * @param onSolution Called with each solution found, and the bound
+   * on the ratio of its cost to the optimal cost.  Each solution costs
+   * less, or has a lower bound, than the one before.
+   * @return The last solution found
+   * @throws SearchFailureException if no goal is reachable
+   * @throws SearchCancelledException if the thread running the search
+   * is interrupted
+   */
+  public Node search(State initial, double acceptable,
+                     ObjDoubleConsumer<Node> onSolution)
+      throws SearchFailureException {
+    this.table = new HashMap<>();
+    this.open = new PriorityQueue<>();
+    this.inconsistent = new ArrayList<>();
+    this.incumbent = null;
+    this.weight = initialWeight;
+    this.iteration = 1;
+    this.addedToFrontier = 1;
+    this.expandedFromFrontier = 0;
+    this.iterations = 0;
+    this.solutions = 0;
+    this.bound = -1;
+
+    try {
+      final Node root = initializer.apply(initial);
+      if (goalTest.test(root)) {
+        this.iterations = 1;
+        this.solutions = 1;
+        this.bound = 1.0;
+        onSolution.accept(root, 1.0);
+        return root;
+      }
+      final Record<Node> rootRecord =
+          new Record<>(root, heuristic.apply(root));
+      table.put(root.getState(), rootRecord);
+      open.add(new Entry<>(rootRecord, root, weight));
+
+      Node reported = null;
+      while (true) {
+        this.iterations = iteration;
+        improvePath();
+        if (incumbent == null) {
+          throw new SearchFailureException();
+        }
+
+        final double proven = provenBound();
+        if (incumbent != reported || proven < bound) {
+          reported = incumbent;
+          this.bound = proven;
+          this.solutions += 1;
+          onSolution.accept(incumbent, proven);
+        }
+        if (bound <= acceptable || weight <= 1.0) {
+          return incumbent;
+        }
+
+        // Lower the weight, and start the next search from the
+        // frontier and the states set aside, with their new priorities.
+        weight = Math.max(1.0, weight - weightStep);
+        iteration += 1;
+        final PriorityQueue<Entry<Node>> oldOpen = open;
+        open = new PriorityQueue<>(Math.max(1, oldOpen.size()));
+        for(final Entry<Node> entry : oldOpen) {
+          if (entry.isCurrent(iteration)) {
+            open.add(new Entry<>(entry.record, entry.node, weight));
+          }
+        }
+        for(final Record<Node> record : inconsistent) {
+          record.inconsistent = false;
+          open.add(new Entry<>(record, record.node, weight));
+        }
+        inconsistent.clear();
+      }
+    } finally {
+      this.table = null;
+      this.open = null;
+      this.inconsistent = null;
+      this.incumbent = null;
+    }
+  }
+
+  /**
+   *  One weighted A* search, which stops when no node on the frontier
+   *  has a lower priority than the cost of the best solution so far.
+   */
+  private void improvePath() throws SearchCancelledException {
+    while (true) {
+      Entry<Node> top = open.peek();
+      while (top != null && !top.isCurrent(iteration)) {
+        open.poll();
+        top = open.peek();
+      }
+      if (top == null
+          || (incumbent != null && incumbent.getCost() <= top.key)) {
+        return;
+      }
+      open.poll();
+
+      if ((expandedFromFrontier & 0x3FF) == 0 && Thread.interrupted()) {
+        throw new SearchCancelledException();
+      }
+      top.record.closedIn = iteration;
+      this.expandedFromFrontier += 1;
+      top.node.forEachChild((child) -> {
+          final double cost = child.getCost();
+          if (incumbent != null && cost >= incumbent.getCost()) {
+            return;
+          }
+          final State state = child.getState();
+          Record<Node> record = table.get(state);
+          if (record == null) {
+            record = new Record<>(child, heuristic.apply(child));
+            table.put(state, record);
+          } else if (cost < record.node.getCost()) {
+            record.node = child;
+          } else {
+            return;
+          }
+
+          if (incumbent != null && cost + record.h >= incumbent.getCost()) {
+            return;
+          }
+          if (goalTest.test(child)) {
+            incumbent = child;
+          } else if (record.closedIn == iteration) {
+            if (!record.inconsistent) {
+              record.inconsistent = true;
+              inconsistent.add(record);
+            }
+          } else {
+            open.add(new Entry<>(record, child, weight));
+            this.addedToFrontier += 1;
+          }
+        });
+    }
+  }
+
+  /**
+   *  Returns the proven bound on the ratio of the incumbent's cost to
+   *  the optimal cost: no path to a goal through a node waiting on the
+   *  frontier or set aside costs less than that node's <i>g+h</i>.
+   */
+  private double provenBound() {
+    double least = Double.POSITIVE_INFINITY;
+    for(final Entry<Node> entry : open) {
+      if (entry.isCurrent(iteration)) {
+        least = Math.min(least, entry.node.getCost() + entry.record.h);
+      }
+    }
+    for(final Record<Node> record : inconsistent) {
+      least = Math.min(least, record.node.getCost() + record.h);
+    }
+    final double cost = incumbent.getCost();
+    if (least >= cost) {
+      return 1.0;
+    }
+    return least > 0 ? Math.min(weight, cost/least) : weight;
+  }
+
+  /**
+   *  A state which has been reached, with the cheapest node reaching
+   *  it so far and its heuristic estimate.
+   */
+  private static final class Record<Node> {
+    Node node;
+    final double h;
+    int closedIn = 0;
+    boolean inconsistent = false;
+
+    Record(Node node, double h) {
+      this.node = node;
+      this.h = h;
+    }
+  }
+
+  /**
+   *  A frontier entry.  Entries are not removed when their state is
+   *  reached more cheaply or expanded, but are skipped when they are
+   *  no longer current.
+   */
+  private static final class Entry<Node extends KnowsOwnCost>
+      implements Comparable<Entry<Node>> {
+    final Record<Node> record;
+    final Node node;
+    final double key;
+
+    Entry(Record<Node> record, Node node, double weight) {
+      this.record = record;
+      this.node = node;
+      this.key = node.getCost() + weight*record.h;
+    }
+
+    boolean isCurrent(int iteration) {
+      return record.node == node && record.closedIn != iteration;
+    }
+
+    /**
+     *  Orders by priority, and among equal priorities prefers the node
+     *  estimated closer to a goal.
+     */
+    @Override public int compareTo(Entry<Node> that) {
+      final int byKey = Double.compare(key, that.key);
+      return byKey != 0 ? byKey : Double.compare(record.h, that.record.h);
+    }
+  }
+
+  // -----------------------------------------------------------------
+  // Statistics.
+
+  /**
+   *  Returns the number of nodes which were added to the frontier in
+   *  the last search, over all of its iterations.
+   * @return -1 if no search has been executed
+   */
+  public long getLastAddedToFrontier() { return addedToFrontier; }
+
+  /**
+   *  Returns the number of nodes which were expanded in the last
+   *  search, over all of its iterations.
+   * @return -1 if no search has been executed
+   */
+  public long getLastExpandedFromFrontier() { return expandedFromFrontier; }
+
+  /**
+   *  Returns the number of weighted searches in the last search.
+   * @return -1 if no search has been executed
+   */
+  public long getLastIterations() { return iterations; }
+
+  /**
+   *  Returns the number of solutions reported in the last search.
+   * @return -1 if no search has been executed
+   */
+  public long getLastSolutions() { return solutions; }
+
+  /**
+   *  Returns the proven bound on the ratio of the cost of the last
+   *  solution found to the optimal cost.
+   * @return -1 if no search has been executed, or no solution found
+   */
+  public double getLastBound() { return bound; }
+}
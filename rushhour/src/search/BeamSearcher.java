@@ -0,0 +1,160 @@
+// Rushhour AI assignment
+//
+// Description: Sample Rushhour boards
+// Date: December 2020
+// Author: John Maraist
+
+package search;
+
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ *  Beam search: breadth-first search which keeps only the <i>k</i>
+ *  best nodes of each layer of the search tree, ranked by a
+ *  heuristic, using a {@link Frontiers.Beam} as its frontier.  The
+ *  explored set remembers {@linkplain
+ *  ExploredSets#trackExploredStates only the states expanded}, so
+ *  that memory use is proportional to the width of the beam times the
+ *  depth of the search, however many nodes are generated and dropped.
+ *
+ *  The price is that the search is incomplete, and its solutions need
+ *  not be optimal: the nodes on the way to a goal may be dropped, and
+ *  the beam may run out of nodes with no goal found.  On a large
+ *  board a beam may also wander for a very long time without running
+ *  out, so the depth of the search may be limited, after which the
+ *  beam counts as having run out.  Optionally the search is then
+ *  restarted with a beam twice as wide, up to some maximum width.
+ *  The statistics describe the last attempt only.
+ *
+ * @param <State> Type representing elements of the search space.
+ * @param <Node> Type representing nodes in the search tree.  Each
+ * node typically contains a reference to a State element.
+ */
+public class BeamSearcher<State, Node extends SearchTreeNode<Node,State>>
+    extends GraphSearcher<State, Node, Frontiers.Beam<State,Node>> {
+
+  // The width of the beam for the attempt under way, shared with the
+  // frontier factory.
+  private static final class Width {
+    int current;
+  }
+
+  private final Width width;
+  private final int initialWidth, maxWidth;
+  private long restarts=-1;
+
+  /**
+   *  Constructor for a beam of fixed width, with no restarts.
+   *
+   * @param goalTest A boolean-returning function checking whether a
+   * tree node contains a goal state.
+   *
+   * @param heuristic Ranks the nodes of each layer, lower values
+   * better.
+   *
+   * @param width The number of nodes kept in each layer.
+   *
+   * @param initializer Creates an initial tree node from a search
+   * space element.
+   */
+  public BeamSearcher(Predicate<Node> goalTest,
+                      Function<Node,Double> heuristic,
+                      int width,
+                      Function<State,Node> initializer) {
+    this(goalTest, heuristic, width, width, Integer.MAX_VALUE, initializer);
+  }
+
+  /**
+   *  Primary constructor for this class, for a beam which widens
+   *  when a search fails.
+   *
+   * @param goalTest A boolean-returning function checking whether a
+   * tree node contains a goal state.
+   *
+   * @param heuristic Ranks the nodes of each layer, lower values
+   * better.
+   *
+   * @param width The number of nodes kept in each layer on the first
+   * attempt.
+   *
+   * @param maxWidth The widest beam to try.  After a failed attempt
+   * with a narrower beam, the search is repeated with a beam twice as
+   * wide, or this wide if that is less.
+   *
+   * @param maxDepth The length of the longest path the search
+   * considers.
+   *
+   * @param initializer Creates an initial tree node from a search
+   * space element.
+   */
+  public BeamSearcher(Predicate<Node> goalTest,
+                      Function<Node,Double> heuristic,
+                      int width, int maxWidth, int maxDepth,
+                      Function<State,Node> initializer) {
+    this(goalTest, heuristic, width, maxWidth, maxDepth, initializer,
+         new Width());
+  }
+
+  private BeamSearcher(Predicate<Node> goalTest,
+                       Function<Node,Double> heuristic,
+                       int width, int maxWidth, int maxDepth,
+                       Function<State,Node> initializer,
+                       Width shared) {
+    super(() -> GoalCheckers.firstGoal(goalTest),
+          () -> new Frontiers.Beam<State,Node>(shared.current, maxDepth,
+                                               heuristic),
+          ExploredSets.trackExploredStates(),
+          initializer);
+    if (width < 1 || maxWidth < width || maxDepth < 0) {
+      throw new IllegalArgumentException
+          ("Bad beam widths " + width + ", " + maxWidth
+           + " or depth " + maxDepth);
+    }
+    this.width = shared;
+    this.initialWidth = width;
+    this.maxWidth = maxWidth;
+    shared.current = width;
+  }
+
+  /**
+   *  Searches with the initial beam width, and if that fails with
+   *  wider beams, until a goal is found or the widest beam fails.
+   *
+   * @throws SearchFailureException When no beam up to the maximum
+   * width leads to a goal state
+   */
+  @Override public Node search(State initial) throws SearchFailureException {
+    width.current = initialWidth;
+    this.restarts = 0;
+    while (true) {
+      try {
+        return super.search(initial);
+      } catch (SearchCancelledException e) {
+        throw e;
+      } catch (SearchFailureException e) {
+        if (width.current >= maxWidth) {
+          throw e;
+        }
+        width.current = (int)Math.min(maxWidth, 2L*width.current);
+        this.restarts += 1;
+      }
+    }
+  }
+
+  /**
+   *  Returns the width of the beam in the last attempt of the last
+   *  search.
+   * @return -1 if no search has been executed
+   */
+  public int getLastWidth() {
+    return restarts < 0 ? -1 : width.current;
+  }
+
+  /**
+   *  Returns the number of times the last search was restarted with a
+   *  wider beam.
+   * @return -1 if no search has been executed
+   */
+  public long getLastRestarts() { return restarts; }
+}
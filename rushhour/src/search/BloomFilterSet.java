@@ -0,0 +1,88 @@
+// Rushhour AI assignment
+//
+// Description: Sample Rushhour boards
+// Date: December 2020
+// Author: John Maraist
+
+package search;
+
+/**
+ *  Approximate set of 64-bit fingerprints as a Bloom filter: each
+ *  fingerprint sets several bits of a fixed bit array, and is taken to
+ *  be present when all of its bits are already set.  A fingerprint
+ *  never added can therefore be reported present, but one added is
+ *  never reported absent.  The filter is sized once, from the number
+ *  of fingerprints expected and the rate of false positives
+ *  acceptable when that many have been added, and does not grow.
+ *
+ *  The bit positions for a fingerprint are drawn by double hashing
+ *  from the two halves of a mix of the fingerprint.
+ */
+final class BloomFilterSet {
+
+  private final long[] bits;
+  private final long size;
+  private final int hashes;
+  private long setBits = 0;
+
+  /**
+   * @param expected The number of fingerprints expected
+   *
+   * @param falsePositiveRate The acceptable probability that a new
+   * fingerprint is reported present once <tt>expected</tt>
+   * fingerprints have been added, between zero and one
+   */
+  BloomFilterSet(long expected, double falsePositiveRate) {
+    if (!(0 < falsePositiveRate && falsePositiveRate < 1)) {
+      throw new IllegalArgumentException
+          ("Bad false positive rate " + falsePositiveRate);
+    }
+    final double ln2 = Math.log(2);
+    final long wanted = (long)Math.ceil
+        (-Math.max(1, expected) * Math.log(falsePositiveRate) / (ln2*ln2));
+    this.bits = new long[(int)Math.min(Integer.MAX_VALUE-8,
+                                       Math.max(1, (wanted+63) >>> 6))];
+    this.size = 64L * bits.length;
+
+    // The count which is best for the bits we have, but no more than
+    // the count which is best for the rate asked for: rounding the
+    // array up to whole words would otherwise give a small filter
+    // dozens of probes.
+    final long forRate =
+        Math.max(1, Math.round(-Math.log(falsePositiveRate) / ln2));
+    this.hashes = (int)Math.min
+        (forRate, Math.max(1, Math.round(ln2 * size / Math.max(1, expected))));
+  }
+
+  /**
+   *  Adds a fingerprint.
+   *
+   * @return <tt>false</tt> if every bit for the fingerprint was
+   * already set, so that it may have been added before
+   */
+  boolean add(long fingerprint) {
+    long z = fingerprint * 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 29)) * 0xBF58476D1CE4E5B9L;
+    final long h1 = z >>> 32, h2 = (z & 0xFFFFFFFFL) | 1;
+    boolean added = false;
+    for(int i=0; i<hashes; i++) {
+      final long bit = Long.remainderUnsigned(h1 + i*h2, size);
+      final int word = (int)(bit >>> 6);
+      final long mask = 1L << bit;
+      if ((bits[word] & mask) == 0) {
+        bits[word] |= mask;
+        setBits += 1;
+        added = true;
+      }
+    }
+    return added;
+  }
+
+  /**
+   *  Returns the probability that a fingerprint not yet added would
+   *  now be reported present, from the fraction of bits set.
+   */
+  double falsePositiveRate() {
+    return Math.pow((double)setBits / size, hashes);
+  }
+}
@@ -60,9 +60,34 @@ public class BreadthFirstSearcher
   }
 
   /**
-   *  Primary constructor for this class.  Passes its arguments to the
-   *  {@linkplain GraphSearcher superclass} constructor, along with a
-   *  factory for queue-based frontiers.  Other constructors for this
+   *  Constructor which passes its arguments to the {@linkplain
+   *  GraphSearcher superclass} constructor, along with a factory for
+   *  {@linkplain Frontiers.Queue array-backed queues} as frontiers.
+   *
+   * @param goalCheckerFactory The {@link
+   * java.util.function.Supplier#get get} method of this object must
+   * return a predicate on tree nodes used to tell if they are goal
+   * nodes.
+   *
+   * @param exploredSetFactory Structure used to manage adding
+   * elements to the frontier, in particular for avoiing duplication.
+   *
+   * @param initializer Creates an initial tree node from a search
+   * space element.
+   */
+  public BreadthFirstSearcher
+      (Supplier<GoalChecker<Node>> goalCheckerFactory,
+       Function<Frontiers.Queue<Node>,ExploredSet<Node>> exploredSetFactory,
+       Function<State,Node> initializer) {
+    this(goalCheckerFactory, Frontiers.queueFactory(),
+         exploredSetFactory, initializer);
+  }
+
+  /**
+   *  Primary constructor for this class, which also takes the factory
+   *  for the queues used as frontiers, for example {@link
+   *  Frontiers#indexedQueueFactory} when the explored set needs to
+   *  check the frontier for a node.  Other constructors for this
    *  class invoke this constructor.
    *
    * @param goalCheckerFactory The {@link
@@ -70,6 +95,9 @@ public class BreadthFirstSearcher
    * return a predicate on tree nodes used to tell if they are goal
    * nodes.
    *
+   * @param frontierFactory The {@link java.util.function.Supplier#get
+   * get} method of this object returns a new, empty queue.
+   *
    * @param exploredSetFactory Structure used to manage adding
    * elements to the frontier, in particular for avoiing duplication.
    *
@@ -78,9 +106,10 @@ public class BreadthFirstSearcher
    */
   public BreadthFirstSearcher
       (Supplier<GoalChecker<Node>> goalCheckerFactory,
+       Supplier<? extends Frontiers.Queue<Node>> frontierFactory,
        Function<Frontiers.Queue<Node>,ExploredSet<Node>> exploredSetFactory,
        Function<State,Node> initializer) {
-    super(goalCheckerFactory, Frontiers.queueFactory(),
+    super(goalCheckerFactory, frontierFactory,
           exploredSetFactory, initializer);
   }
 
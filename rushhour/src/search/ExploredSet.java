@@ -43,6 +43,20 @@ public interface ExploredSet<Node> {
    * @param n The tree node to be tested
    */
   public boolean shouldAddToFrontier(Node n);
+
+  /**
+   * Returns the estimated probability that this set would now wrongly
+   * report a newly-generated node as already seen, and so omit it from
+   * the frontier.  Exact implementations, the default, return zero.
+   */
+  public default double estimatedOmissionProbability() { return 0.0; }
+
+  /**
+   * Releases whatever the set holds beyond its own heap memory, such
+   * as direct buffers, once the search using it is over.  The set is
+   * not used again afterwards.  By default, does nothing.
+   */
+  public default void release() { }
 }
 
 
@@ -5,11 +5,13 @@
 // Author: John Maraist
 
 package search;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.function.Function;
+import java.util.function.ToLongFunction;
 
 /**
- * Three sample implementations of {@linkplain search.ExploredSet ways
+ * Sample implementations of {@linkplain search.ExploredSet ways
  * to track nodes} which we have already either added to the frontier,
  * or removed from the frontier for exploration.
  */
@@ -75,5 +77,269 @@ public class ExploredSets {
         }
       };
   }
-}
 
+  /**
+   * Implementation which remembers the cheapest cost at which each
+   * artifact has been reached, and admits a node to the frontier
+   * whenever it reaches its artifact more cheaply than before.  A
+   * state whose node has already been expanded is then reopened when
+   * a shorter path to it turns up, so that A* with an admissible but
+   * inconsistent heuristic still returns a cheapest solution; the
+   * other implementations keep the first path generated to each
+   * state, which need not be the cheapest.  The costlier node is left
+   * in the frontier, and expanding it adds nothing.
+   *
+   * @param artifactBuilder Function taking a search node, and
+   * returning the hashable artifact.
+   *
+   * @param <F> The type of the frontier.
+   * @param <N> The type of search nodes.
+   * @param <A> The type of the artifact to be hashed by the frontier
+   * tracker.
+   */
+  public static <F,N extends KnowsOwnCost,A> Function<F,ExploredSet<N>>
+      trackCheapestByArtifactHashMap(final Function<N,A> artifactBuilder) {
+    return (F frontier) -> new ExploredSet<N>() {
+        private final HashMap<A,Double> cheapest = new HashMap<A,Double>();
+        @Override public void noteExplored(N n) { }
+        @Override public void noteInitial(N n) {
+          cheapest.put(artifactBuilder.apply(n), n.getCost());
+        }
+        @Override public boolean shouldAddToFrontier(N n) {
+          final A artifact = artifactBuilder.apply(n);
+          final Double known = cheapest.get(artifact);
+          if (known != null && known <= n.getCost()) {
+            return false;
+          }
+          cheapest.put(artifact, n.getCost());
+          return true;
+        }
+      };
+  }
+
+  /**
+   * Implementation which remembers only the states of nodes which
+   * have been explored, and which asks the frontier whether it
+   * already holds a node's state.  Unlike the other implementations,
+   * this one forgets nodes which a frontier such as a {@linkplain
+   * Frontiers.Beam beam} drops, so that its size is bounded by the
+   * number of nodes expanded rather than the number generated.
+   *
+   * @param <F> The type of the frontier.
+   * @param <S> The type of the state underlying each search node.
+   * @param <N> The type of search nodes.
+   */
+  public static <F extends FrontierCheckingStructure<N>, S,
+                 N extends SearchTreeNode<N,S>>
+      Function<F,ExploredSet<N>> trackExploredStates() {
+    return (F frontier) -> new ExploredSet<N>() {
+        private final HashSet<S> explored = new HashSet<S>();
+        @Override public void noteInitial(N n) { }
+        @Override public void noteExplored(N n) {
+          explored.add(n.getState());
+        }
+        @Override public boolean shouldAddToFrontier(N n) {
+          return !explored.contains(n.getState()) && !frontier.contains(n);
+        }
+      };
+  }
+
+  /**
+   * Implementation which tracks nodes by a 64-bit fingerprint of each
+   * node, in an open-addressing table of <tt>long</tt>s rather than a
+   * {@link HashSet} of objects.  The fingerprint must identify the
+   * node's state exactly: two states with the same fingerprint are
+   * taken to be the same.
+   *
+   * @param fingerprint Function taking a search node, and returning
+   * its fingerprint.
+   *
+   * @param <F> The type of the frontier.
+   * @param <N> The type of search nodes.
+   */
+  public static <F,N> Function<F,ExploredSet<N>>
+      trackByFingerprint(final ToLongFunction<N> fingerprint) {
+    return trackByFingerprint(fingerprint, (n) -> null);
+  }
+
+  /**
+   * Implementation which tracks nodes by a 64-bit fingerprint of each
+   * node, verified against a full key.  Two nodes are taken to have
+   * the same state only when both their fingerprints and their keys
+   * are equal, so the fingerprint may be a hash.
+   *
+   * @param fingerprint Function taking a search node, and returning
+   * its fingerprint.
+   *
+   * @param fullKey Function taking a search node, and returning a key
+   * identifying its state exactly, or <tt>null</tt> if the node's
+   * fingerprint is exact by itself.  Every key must have the same
+   * length; keys are copied into the set, so the function may return
+   * an array belonging to the node.
+   *
+   * @param <F> The type of the frontier.
+   * @param <N> The type of search nodes.
+   */
+  public static <F,N> Function<F,ExploredSet<N>>
+      trackByFingerprint(final ToLongFunction<N> fingerprint,
+                         final Function<N,long[]> fullKey) {
+    return (F frontier) -> new ExploredSet<N>() {
+        private final FingerprintTable tracker = new FingerprintTable(1024);
+        @Override public void noteExplored(N n) { }
+        @Override public void noteInitial(N n) {
+          tracker.add(fingerprint.applyAsLong(n), fullKey.apply(n));
+        }
+        @Override public boolean shouldAddToFrontier(N n) {
+          return tracker.add(fingerprint.applyAsLong(n), fullKey.apply(n));
+        }
+      };
+  }
+
+  /**
+   * Implementation which tracks nodes by a verified 64-bit fingerprint
+   * like {@link #trackByFingerprint(ToLongFunction,Function)}, but
+   * keeps its table in direct memory outside the Java heap, for
+   * explored sets too large for the heap.  The table starts with
+   * room for a given number of nodes, and doubles when half full.
+   *
+   * @param fingerprint Function taking a search node, and returning
+   * its fingerprint.
+   *
+   * @param fullKey Function taking a search node, and returning a key
+   * identifying its state exactly, or <tt>null</tt> if the node's
+   * fingerprint is exact by itself.  Every key must have the same
+   * length.
+   *
+   * @param initialCapacity The number of nodes the table should hold
+   * before it first grows.
+   *
+   * @param <F> The type of the frontier.
+   * @param <N> The type of search nodes.
+   */
+  public static <F,N> Function<F,ExploredSet<N>>
+      trackByFingerprintOffHeap(final ToLongFunction<N> fingerprint,
+                                final Function<N,long[]> fullKey,
+                                final long initialCapacity) {
+    return trackByFingerprintOffHeap(fingerprint, fullKey,
+                                     2*initialCapacity, 0.5, 2);
+  }
+
+  /**
+   * Implementation which tracks nodes by a verified 64-bit fingerprint
+   * in a table kept in direct memory outside the Java heap, with the
+   * sizing of the table given explicitly.
+   *
+   * @param fingerprint Function taking a search node, and returning
+   * its fingerprint.
+   *
+   * @param fullKey Function taking a search node, and returning a key
+   * identifying its state exactly, or <tt>null</tt> if the node's
+   * fingerprint is exact by itself.  Every key must have the same
+   * length.
+   *
+   * @param initialSlots The number of slots first allocated in the
+   * table, rounded up to a power of two.
+   *
+   * @param maxLoad The fraction of slots which may be filled before
+   * the table grows.
+   *
+   * @param growthFactor The factor, a power of two, by which the
+   * table grows.
+   *
+   * @param <F> The type of the frontier.
+   * @param <N> The type of search nodes.
+   */
+  public static <F,N> Function<F,ExploredSet<N>>
+      trackByFingerprintOffHeap(final ToLongFunction<N> fingerprint,
+                                final Function<N,long[]> fullKey,
+                                final long initialSlots,
+                                final double maxLoad,
+                                final int growthFactor) {
+    return (F frontier) -> new ExploredSet<N>() {
+        private final OffHeapFingerprintTable tracker =
+            new OffHeapFingerprintTable(initialSlots, maxLoad, growthFactor);
+        @Override public void release() { tracker.release(); }
+        @Override public void noteExplored(N n) { }
+        @Override public void noteInitial(N n) {
+          tracker.add(fingerprint.applyAsLong(n), fullKey.apply(n));
+        }
+        @Override public boolean shouldAddToFrontier(N n) {
+          return tracker.add(fingerprint.applyAsLong(n), fullKey.apply(n));
+        }
+      };
+  }
+
+  /**
+   * Approximate implementation which tracks nodes by a 64-bit
+   * fingerprint in a {@linkplain BloomFilterSet Bloom filter}.  A new
+   * node may be wrongly taken to have been seen already, and omitted;
+   * the searcher reports the estimated probability of this in its
+   * {@link GraphSearcher#getLastOmissionProbability statistics}.
+   *
+   * @param fingerprint Function taking a search node, and returning
+   * its fingerprint.
+   *
+   * @param expectedStates The number of distinct states the search is
+   * expected to reach, from which the filter is sized.
+   *
+   * @param falsePositiveRate The acceptable probability of omitting a
+   * new node once <tt>expectedStates</tt> states have been reached.
+   *
+   * @param <F> The type of the frontier.
+   * @param <N> The type of search nodes.
+   */
+  public static <F,N> Function<F,ExploredSet<N>>
+      trackByBloomFilter(final ToLongFunction<N> fingerprint,
+                         final long expectedStates,
+                         final double falsePositiveRate) {
+    return (F frontier) -> new ExploredSet<N>() {
+        private final BloomFilterSet tracker =
+            new BloomFilterSet(expectedStates, falsePositiveRate);
+        @Override public void noteExplored(N n) { }
+        @Override public void noteInitial(N n) {
+          tracker.add(fingerprint.applyAsLong(n));
+        }
+        @Override public boolean shouldAddToFrontier(N n) {
+          return tracker.add(fingerprint.applyAsLong(n));
+        }
+        @Override public double estimatedOmissionProbability() {
+          return tracker.falsePositiveRate();
+        }
+      };
+  }
+
+  /**
+   * Approximate implementation which tracks nodes by {@linkplain
+   * HashCompactionTable hash compaction}, keeping only a 32-bit
+   * signature of each node's 64-bit fingerprint.  A new node may be
+   * wrongly taken to have been seen already, and omitted; the
+   * searcher reports the estimated probability of this in its {@link
+   * GraphSearcher#getLastOmissionProbability statistics}.  The set
+   * holds at most about 2<sup>30</sup> signatures; a search which
+   * reaches more new states fails with an {@link
+   * IllegalStateException}.
+   *
+   * @param fingerprint Function taking a search node, and returning
+   * its fingerprint.
+   *
+   * @param <F> The type of the frontier.
+   * @param <N> The type of search nodes.
+   */
+  public static <F,N> Function<F,ExploredSet<N>>
+      trackByHashCompaction(final ToLongFunction<N> fingerprint) {
+    return (F frontier) -> new ExploredSet<N>() {
+        private final HashCompactionTable tracker =
+            new HashCompactionTable(1024);
+        @Override public void noteExplored(N n) { }
+        @Override public void noteInitial(N n) {
+          tracker.add(fingerprint.applyAsLong(n));
+        }
+        @Override public boolean shouldAddToFrontier(N n) {
+          return tracker.add(fingerprint.applyAsLong(n));
+        }
+        @Override public double estimatedOmissionProbability() {
+          return tracker.falsePositiveRate();
+        }
+      };
+  }
+}
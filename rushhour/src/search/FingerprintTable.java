@@ -0,0 +1,184 @@
+// Rushhour AI assignment
+//
+// Description: Sample Rushhour boards
+// Date: December 2020
+// Author: John Maraist
+
+package search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ *  Set of 64-bit fingerprints, as an open-addressing hash table over
+ *  a <tt>long</tt> array with linear probing.  Zero marks an empty
+ *  slot, so a zero fingerprint is recorded separately.  The table
+ *  doubles when it is half full, so it costs 16 to 32 bytes per
+ *  fingerprint.
+ *
+ *  When fingerprints may collide, the table can also keep a full key
+ *  with each fingerprint, and then treats two entries as the same only
+ *  when both fingerprint and key are equal.  The length of the keys is
+ *  fixed by the first entry added, with a <tt>null</tt> key standing
+ *  for a fingerprint which is exact by itself.  Keys are copied into a
+ *  second flat <tt>long</tt> array alongside the fingerprints, so that
+ *  looking up an entry compares words in place and allocates nothing,
+ *  and the caller's key array is never retained.
+ */
+final class FingerprintTable {
+
+  private long[] fingerprints;
+  private long[] keys = null;
+  private int mask, size = 0, width = -1;
+  private boolean hasZero = false;
+  private ArrayList<long[]> zeroKeys = null;
+
+  /**
+   * @param expected The number of fingerprints the table should hold
+   * before it first grows
+   */
+  FingerprintTable(int expected) {
+    int capacity = 16;
+    while (capacity < 2*expected && capacity < (1<<30)) {
+      capacity <<= 1;
+    }
+    this.fingerprints = new long[capacity];
+    this.mask = capacity-1;
+  }
+
+  /**
+   *  Returns the number of distinct entries in the table.
+   */
+  int size() { return size; }
+
+  /**
+   *  Adds an entry, if it is not already present.  The key is only
+   *  read, and is copied if the entry is new.
+   *
+   * @param fingerprint The fingerprint
+   *
+   * @param key The full key, or <tt>null</tt> if the fingerprint is
+   * exact
+   *
+   * @return <tt>true</tt> if the entry was not already present
+   *
+   * @throws IllegalArgumentException if the key is not the same length
+   * as the keys already added
+   */
+  boolean add(long fingerprint, long[] key) {
+    final int keyWords = key == null ? 0 : key.length;
+    if (width < 0) {
+      width = keyWords;
+      if (width > 0) {
+        keys = new long[fingerprints.length*width];
+      }
+    } else if (keyWords != width) {
+      throw new IllegalArgumentException
+          ("Key of " + keyWords + " words in table of " + width);
+    }
+
+    if (fingerprint == 0) {
+      return addZero(key);
+    }
+    int slot = slotFor(fingerprint);
+    long found;
+    while ((found = fingerprints[slot]) != 0) {
+      if (found == fingerprint && keyMatches(slot, key)) {
+        return false;
+      }
+      slot = (slot+1) & mask;
+    }
+    fingerprints[slot] = fingerprint;
+    if (width > 0) {
+      System.arraycopy(key, 0, keys, slot*width, width);
+    }
+    size += 1;
+    if (2*size > fingerprints.length) {
+      grow();
+    }
+    return true;
+  }
+
+  /**
+   *  Checks whether an entry is present, without changing the table,
+   *  so that several threads may probe it at once while none adds to
+   *  it.
+   *
+   * @param fingerprint The fingerprint
+   *
+   * @param key The full key, or <tt>null</tt> if the fingerprint is
+   * exact
+   */
+  boolean contains(long fingerprint, long[] key) {
+    if (fingerprint == 0) {
+      if (key == null) { return hasZero; }
+      if (zeroKeys == null) { return false; }
+      for(final long[] other : zeroKeys) {
+        if (Arrays.equals(other, key)) { return true; }
+      }
+      return false;
+    }
+    int slot = slotFor(fingerprint);
+    long found;
+    while ((found = fingerprints[slot]) != 0) {
+      if (found == fingerprint && keyMatches(slot, key)) {
+        return true;
+      }
+      slot = (slot+1) & mask;
+    }
+    return false;
+  }
+
+  private boolean keyMatches(int slot, long[] key) {
+    final int base = slot*width;
+    for(int i=0; i<width; i++) {
+      if (keys[base+i] != key[i]) { return false; }
+    }
+    return true;
+  }
+
+  private boolean addZero(long[] key) {
+    if (key == null) {
+      if (hasZero) { return false; }
+      hasZero = true;
+    } else {
+      if (zeroKeys == null) { zeroKeys = new ArrayList<long[]>(); }
+      for(final long[] other : zeroKeys) {
+        if (Arrays.equals(other, key)) { return false; }
+      }
+      zeroKeys.add(Arrays.copyOf(key, key.length));
+    }
+    size += 1;
+    return true;
+  }
+
+  /**
+   *  Spreads the fingerprint over the table, since some fingerprints
+   *  (such as packed board positions) vary only in their low bits.
+   */
+  private int slotFor(long fingerprint) {
+    long z = fingerprint * 0x9E3779B97F4A7C15L;
+    return (int)(z ^ (z >>> 32)) & mask;
+  }
+
+  private void grow() {
+    final long[] oldFingerprints = fingerprints;
+    final long[] oldKeys = keys;
+    fingerprints = new long[2*oldFingerprints.length];
+    keys = oldKeys == null ? null : new long[fingerprints.length*width];
+    mask = fingerprints.length-1;
+    for(int i=0; i<oldFingerprints.length; i++) {
+      final long fingerprint = oldFingerprints[i];
+      if (fingerprint != 0) {
+        int slot = slotFor(fingerprint);
+        while (fingerprints[slot] != 0) {
+          slot = (slot+1) & mask;
+        }
+        fingerprints[slot] = fingerprint;
+        if (keys != null) {
+          System.arraycopy(oldKeys, i*width, keys, slot*width, width);
+        }
+      }
+    }
+  }
+}
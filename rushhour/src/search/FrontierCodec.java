@@ -0,0 +1,42 @@
+// Rushhour AI assignment
+//
+// Description: Sample Rushhour boards
+// Date: December 2020
+// Author: John Maraist
+
+package search;
+
+import java.nio.ByteBuffer;
+
+/**
+ *  Encoding of search tree nodes as fixed-size binary records, for
+ *  frontiers such as {@link Frontiers.SpillingPriorityQueue} which
+ *  keep some of their nodes outside of memory.  One codec serves the
+ *  nodes of one search, and may keep whatever it needs to rebuild
+ *  them, such as the nodes which are parents of encoded nodes.
+ *
+ *  A decoded node must be ordered by the frontier's comparator just as
+ *  the node encoded was, so a node which {@linkplain KnowsOwnPriority
+ *  stores its priority} should have it encoded too.
+ *
+ * @param <Node> The type of tree nodes encoded.
+ */
+public interface FrontierCodec<Node> {
+
+  /**
+   *  Returns the number of bytes in the encoding of every node.
+   */
+  public int recordSize();
+
+  /**
+   *  Writes one node at the buffer's position, advancing it by
+   *  {@link #recordSize} bytes.
+   */
+  public void encode(Node node, ByteBuffer buffer);
+
+  /**
+   *  Reads one node from the buffer's position, advancing it by
+   *  {@link #recordSize} bytes.
+   */
+  public Node decode(ByteBuffer buffer);
+}
@@ -59,4 +59,11 @@ public interface FrontierStructure<Node> {
    */
   public default void debugDisplayFrontier() { }
 
+  /**
+   *  Releases whatever the frontier holds beyond its own memory, such
+   *  as files, once the search using it is over.  The frontier is not
+   *  used again afterwards.  By default, does nothing.
+   */
+  public default void release() { }
+
 }
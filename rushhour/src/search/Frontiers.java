@@ -6,9 +6,20 @@
 
 package search;
 
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.NoSuchElementException;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
@@ -77,6 +88,305 @@ public class Frontiers {
 
   // = = = = = = = = = = = = = = = = = = = = = = = = = = = = = = = = =
 
+  /**
+   *  A {@linkplain PriorityQueue priority queue} frontier which holds
+   *  at most a fixed number of nodes in memory, for searches whose
+   *  frontier outgrows the heap.  When more nodes than that are added,
+   *  the worse half of the nodes in memory is sorted and written,
+   *  {@linkplain FrontierCodec encoded}, to a new run file, in one
+   *  sequential pass.  Each run is read back sequentially through a
+   *  small buffer, and {@link #pop} takes the best of the nodes in
+   *  memory and the first unread node of each run, so the runs merge
+   *  back in as the nodes in memory drain.  When there are too many
+   *  runs, they are merged into one.
+   *
+   *  Run files are opened to be deleted when closed, and are closed
+   *  when used up or when the frontier is {@linkplain #release
+   *  released}.  The nodes popped from a run are decoded afresh, and
+   *  are not the objects which were added.
+   */
+  public static class SpillingPriorityQueue<Node> extends PriorityQueue<Node> {
+
+    /**
+     *  The default number of runs above which they are merged into one.
+     */
+    public static final int DEFAULT_MAX_RUNS = 32;
+
+    /**
+     *  The size in bytes of the buffer through which each run is
+     *  written or read.
+     */
+    public static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     *  A run file, and the first of its nodes not yet popped.
+     */
+    private final class Run {
+      private final FileChannel channel;
+      private final ByteBuffer buffer;
+      private long unread;
+      Node head;
+
+      Run(FileChannel channel, long count) throws IOException {
+        this.channel = channel;
+        this.unread = count;
+        this.buffer = ByteBuffer.allocate(writeBuffer.capacity());
+        buffer.flip();
+        advance();
+      }
+
+      /**
+       *  Decodes the next node into {@link #head}, or closes the run if
+       *  none remain.
+       */
+      void advance() throws IOException {
+        if (unread == 0) {
+          head = null;
+          channel.close();
+          return;
+        }
+        final int size = codec.recordSize();
+        if (buffer.remaining() < size) {
+          buffer.compact();
+          while (buffer.position() < size) {
+            if (channel.read(buffer) < 0) {
+              throw new EOFException("Frontier run ended early");
+            }
+          }
+          buffer.flip();
+        }
+        head = codec.decode(buffer);
+        unread -= 1;
+      }
+    }
+
+    private final Comparator<Node> prioritizer;
+    private final int capacity, maxRuns;
+    private final Function<Node,FrontierCodec<Node>> codecFactory;
+    private final Path directory;
+    private final java.util.PriorityQueue<Run> runs;
+    private FrontierCodec<Node> codec = null;
+    private ByteBuffer writeBuffer = null;
+    private long onDisk = 0, spilled = 0, merges = 0;
+
+    /**
+     *  Creates a frontier merging its runs when there are more than
+     *  the {@linkplain #DEFAULT_MAX_RUNS default} number.
+     *
+     * @param prioritizer Orders the nodes, least first
+     *
+     * @param capacity The most nodes held in memory, at least two
+     *
+     * @param codecFactory Creates the codec for the nodes of a search
+     * from the first node added
+     *
+     * @param directory Where run files are created
+     */
+    public SpillingPriorityQueue(Comparator<Node> prioritizer, int capacity,
+                                 Function<Node,FrontierCodec<Node>>
+                                     codecFactory,
+                                 Path directory) {
+      this(prioritizer, capacity, DEFAULT_MAX_RUNS, codecFactory, directory);
+    }
+
+    /**
+     * @param prioritizer Orders the nodes, least first
+     *
+     * @param capacity The most nodes held in memory, at least two
+     *
+     * @param maxRuns The number of runs above which they are merged
+     * into one
+     *
+     * @param codecFactory Creates the codec for the nodes of a search
+     * from the first node added
+     *
+     * @param directory Where run files are created
+     */
+    public SpillingPriorityQueue(Comparator<Node> prioritizer, int capacity,
+                                 int maxRuns,
+                                 Function<Node,FrontierCodec<Node>>
+                                     codecFactory,
+                                 Path directory) {
+      super(prioritizer);
+      if (capacity < 2 || maxRuns < 1) {
+        throw new IllegalArgumentException
+            ("Bad capacity " + capacity + " or maximum runs " + maxRuns);
+      }
+      this.prioritizer = prioritizer;
+      this.capacity = capacity;
+      this.maxRuns = maxRuns;
+      this.codecFactory = codecFactory;
+      this.directory = directory;
+      this.runs = new java.util.PriorityQueue<Run>
+          ((r1, r2) -> prioritizer.compare(r1.head, r2.head));
+    }
+
+    @Override public void add(Node n) {
+      if (codec == null) {
+        codec = codecFactory.apply(n);
+        writeBuffer = ByteBuffer.allocateDirect
+            (Math.max(BUFFER_SIZE, codec.recordSize()));
+      }
+      super.add(n);
+      if (queue.size() > capacity) {
+        try {
+          spill();
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+    }
+
+    @Override public boolean isEmpty() {
+      return queue.isEmpty() && runs.isEmpty();
+    }
+
+    @Override public Node pop() {
+      final Run run = runs.peek();
+      if (run == null
+          || (!queue.isEmpty()
+              && prioritizer.compare(queue.peek(), run.head) <= 0)) {
+        return super.pop();
+      }
+      runs.poll();
+      final Node result = run.head;
+      onDisk -= 1;
+      try {
+        run.advance();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      if (run.head != null) {
+        runs.add(run);
+      }
+      return result;
+    }
+
+    @Override public int countOpen() {
+      return (int)Math.min(Integer.MAX_VALUE, queue.size() + onDisk);
+    }
+
+    @Override public void release() {
+      for(final Run run : runs) {
+        try {
+          run.channel.close();
+        } catch (IOException e) {
+          // The file is already unlinked, so there is nothing to undo.
+        }
+      }
+      runs.clear();
+      queue.clear();
+    }
+
+    /**
+     *  Writes the worse half of the nodes in memory to a new run.
+     */
+    private void spill() throws IOException {
+      final ArrayList<Node> nodes = new ArrayList<Node>(queue);
+      nodes.sort(prioritizer);
+      final int keep = capacity/2;
+      queue.clear();
+      for(int i=0; i<keep; i++) {
+        queue.add(nodes.get(i));
+      }
+      final FileChannel channel = newRunFile();
+      for(int i=keep; i<nodes.size(); i++) {
+        write(channel, nodes.get(i));
+      }
+      final long count = nodes.size()-keep;
+      nodes.clear();
+      finishRun(channel, count);
+      onDisk += count;
+      spilled += count;
+      if (runs.size() > maxRuns) {
+        mergeRuns();
+      }
+    }
+
+    /**
+     *  Merges all of the runs into one.
+     */
+    private void mergeRuns() throws IOException {
+      final FileChannel channel = newRunFile();
+      long count = 0;
+      while (!runs.isEmpty()) {
+        final Run run = runs.poll();
+        write(channel, run.head);
+        count += 1;
+        run.advance();
+        if (run.head != null) {
+          runs.add(run);
+        }
+      }
+      finishRun(channel, count);
+      merges += 1;
+    }
+
+    private FileChannel newRunFile() throws IOException {
+      final Path file = Files.createTempFile(directory, "frontier-", ".run");
+      return FileChannel.open(file, StandardOpenOption.READ,
+                              StandardOpenOption.WRITE,
+                              StandardOpenOption.DELETE_ON_CLOSE);
+    }
+
+    private void write(FileChannel channel, Node node) throws IOException {
+      if (writeBuffer.remaining() < codec.recordSize()) {
+        flush(channel);
+      }
+      codec.encode(node, writeBuffer);
+    }
+
+    private void flush(FileChannel channel) throws IOException {
+      writeBuffer.flip();
+      while (writeBuffer.hasRemaining()) {
+        channel.write(writeBuffer);
+      }
+      writeBuffer.clear();
+    }
+
+    private void finishRun(FileChannel channel, long count)
+        throws IOException {
+      flush(channel);
+      channel.position(0);
+      runs.add(new Run(channel, count));
+    }
+
+    /**
+     *  Returns the number of nodes written to runs since this frontier
+     *  was created, not counting their rewriting when runs are merged.
+     */
+    public long getSpilled() { return spilled; }
+
+    /**
+     *  Returns the number of times this frontier has merged its runs.
+     */
+    public long getMerges() { return merges; }
+
+    /**
+     *  Returns the number of nodes held in runs rather than in memory.
+     */
+    public long countOnDisk() { return onDisk; }
+  }
+
+  /**
+   *  Factory for {@linkplain SpillingPriorityQueue priority queue
+   *  frontiers which spill to disk}.
+   */
+  public static <Node> Supplier<SpillingPriorityQueue<Node>>
+      spillingPriorityQueueFactory
+          (final Comparator<Node> prioritizer, final int capacity,
+           final Function<Node,FrontierCodec<Node>> codecFactory,
+           final Path directory) {
+    return new Supplier<SpillingPriorityQueue<Node>>() {
+      public SpillingPriorityQueue<Node> get() {
+        return new SpillingPriorityQueue<Node>(prioritizer, capacity,
+                                               codecFactory, directory);
+      }
+    };
+  }
+
+  // = = = = = = = = = = = = = = = = = = = = = = = = = = = = = = = = =
+
   public static class StateKeyedPriorityQueue<S, N extends SearchTreeNode<N,S>>
       extends PriorityQueue<N> {
 
@@ -174,18 +484,456 @@ public class Frontiers {
     };
   }
 
+  // = = = = = = = = = = = = = = = = = = = = = = = = = = = = = = = = =
+
+  /**
+   *  A priority queue keeping at most one node per state, like {@link
+   *  StateKeyedPriorityQueue}, but as a binary heap which records the
+   *  slot of each state's node.  When a better path to a state still
+   *  in the frontier arrives, the new node takes over the old node's
+   *  slot and is sifted up, in time logarithmic in the size of the
+   *  frontier, rather than the old node being found and removed by a
+   *  linear scan.  A better path to a state which has already been
+   *  popped is added afresh, as {@link StateKeyedPriorityQueue} does.
+   */
+  public static class IndexedPriorityQueue<S, N extends SearchTreeNode<N,S>>
+      extends DebuggingFrontier<N> {
+
+    /**
+     *  The best node so far for one state, and where it sits in the
+     *  heap, or -1 once it has been popped.
+     */
+    private static final class Entry<N> {
+      N node;
+      int slot;
+      Entry(N node) { this.node = node; }
+    }
+
+    private final HashMap<S,Entry<N>> bestPath = new HashMap<>();
+    private final Comparator<N> prioritizer;
+    private Entry<N>[] heap;
+    private int size = 0;
+
+    @SuppressWarnings("unchecked")
+    public IndexedPriorityQueue(Comparator<N> prioritizer) {
+      this.prioritizer = prioritizer;
+      this.heap = (Entry<N>[])new Entry<?>[16];
+    }
+
+    @Override public void add(N node) {
+      final S state = node.getState();
+      final Entry<N> previous = bestPath.get(state);
+      if (previous == null) {
+        final Entry<N> entry = new Entry<N>(node);
+        bestPath.put(state, entry);
+        push(entry);
+      } else if (prioritizer.compare(previous.node, node) > 0) {
+        previous.node = node;
+        if (previous.slot < 0) {
+          push(previous);
+        } else {
+          siftUp(previous.slot);
+        }
+      }
+    }
+
+    @Override public boolean isEmpty() {
+      return size == 0;
+    }
+
+    @Override public N pop() {
+      if (size == 0) {
+        throw new FrontierEmptyException();
+      }
+      final Entry<N> top = heap[0];
+      size -= 1;
+      if (size > 0) {
+        place(heap[size], 0);
+        siftDown(0);
+      }
+      heap[size] = null;
+      top.slot = -1;
+      return top.node;
+    }
+
+    @Override public int countOpen() {
+      return size;
+    }
+
+    @Override public void debugDisplayFrontier() {
+      super.debugDisplayFrontier();
+    }
+
+    private void push(Entry<N> entry) {
+      if (size == heap.length) {
+        heap = Arrays.copyOf(heap, 2*size);
+      }
+      place(entry, size);
+      size += 1;
+      siftUp(entry.slot);
+    }
+
+    private void place(Entry<N> entry, int slot) {
+      heap[slot] = entry;
+      entry.slot = slot;
+    }
+
+    private void siftUp(int slot) {
+      final Entry<N> entry = heap[slot];
+      while (slot > 0) {
+        final int parent = (slot-1) >>> 1;
+        if (prioritizer.compare(heap[parent].node, entry.node) <= 0) {
+          break;
+        }
+        place(heap[parent], slot);
+        slot = parent;
+      }
+      place(entry, slot);
+    }
+
+    private void siftDown(int slot) {
+      final Entry<N> entry = heap[slot];
+      final int half = size >>> 1;
+      while (slot < half) {
+        int child = 2*slot + 1;
+        if (child+1 < size
+            && prioritizer.compare(heap[child+1].node, heap[child].node) < 0) {
+          child += 1;
+        }
+        if (prioritizer.compare(entry.node, heap[child].node) <= 0) {
+          break;
+        }
+        place(heap[child], slot);
+        slot = child;
+      }
+      place(entry, slot);
+    }
+  }
+
+  /**
+   *  Factory for {@linkplain search.Frontiers.IndexedPriorityQueue
+   *  indexed heap-based} frontier implementations.
+   */
+  public static <State, Node extends SearchTreeNode<Node,State>>
+      Supplier<IndexedPriorityQueue<State,Node>>
+      indexedPriorityQueueFactory(final Comparator<Node> prioritizer) {
+    return new Supplier<IndexedPriorityQueue<State,Node>>() {
+      public IndexedPriorityQueue<State,Node> get() {
+        return new IndexedPriorityQueue<State,Node>(prioritizer);
+      }
+    };
+  }
+
+  // = = = = = = = = = = = = = = = = = = = = = = = = = = = = = = = = =
+
+  /**
+   *  Returns the integer priority a node {@linkplain KnowsOwnPriority
+   *  stores}, for frontiers which index their nodes by it.
+   *
+   * @throws IllegalArgumentException if the node has no priority
+   * set, or its priority is negative or not integral
+   */
+  private static long integralPriority(KnowsOwnPriority node) {
+    final double priority = node.getPriority();
+    final long key = (long)priority;
+    if (key != priority || key < 0) {
+      throw new IllegalArgumentException
+          ("Node " + node + " has priority " + priority
+           + ", not a non-negative integer");
+    }
+    return key;
+  }
+
+  /**
+   *  A frontier as an array of buckets, one for each priority, for
+   *  A* and uniform-cost search where every priority is a small
+   *  non-negative integer, as in Rushhour where each move costs one
+   *  and the heuristics count cars or squares.  Each bucket is split
+   *  again by heuristic estimate, and nodes with a lower estimate
+   *  (equivalently, for the same priority, a greater cost so far) are
+   *  popped first.  Nodes of the same priority and estimate are
+   *  popped last-in, first-out.
+   *
+   *  Nodes must {@linkplain KnowsOwnPriority store} their priority
+   *  before they are added, as {@link AStarFrontierSearcher} arranges.
+   *  Since the buckets ignore the searcher's comparator, this frontier
+   *  can be passed to an {@link AStarFrontierSearcher} constructor as
+   *  <tt>(cmp) -&gt; Frontiers.bucketQueueFactory()</tt>.
+   *
+   *  Adding and popping take constant time, apart from stepping over
+   *  empty buckets; with a consistent heuristic the lowest priority
+   *  never decreases, so the steps over empty buckets amount to the
+   *  largest priority over the whole search.
+   */
+  public static class BucketQueue<Node extends KnowsOwnPriority>
+      extends DebuggingFrontier<Node> {
+
+    /**
+     *  The nodes of one priority, in a stack for each estimate.
+     */
+    private static final class Bucket<Node> {
+      ArrayList<Node>[] byEstimate;
+      int size = 0, lowest = 0;
+
+      @SuppressWarnings("unchecked")
+      Bucket() {
+        this.byEstimate = (ArrayList<Node>[])new ArrayList<?>[8];
+      }
+
+      @SuppressWarnings("unchecked")
+      void push(Node node, int estimate) {
+        if (estimate >= byEstimate.length) {
+          byEstimate = Arrays.copyOf
+              (byEstimate, Math.max(estimate+1, 2*byEstimate.length));
+        }
+        ArrayList<Node> stack = byEstimate[estimate];
+        if (stack == null) {
+          stack = new ArrayList<Node>();
+          byEstimate[estimate] = stack;
+        }
+        stack.add(node);
+        if (size == 0 || estimate < lowest) { lowest = estimate; }
+        size += 1;
+      }
+
+      Node pop() {
+        ArrayList<Node> stack = byEstimate[lowest];
+        while (stack == null || stack.isEmpty()) {
+          lowest += 1;
+          stack = byEstimate[lowest];
+        }
+        size -= 1;
+        return stack.remove(stack.size()-1);
+      }
+    }
+
+    private Bucket<Node>[] buckets;
+    private int lowest = 0, size = 0;
+
+    @SuppressWarnings("unchecked")
+    public BucketQueue() {
+      this.buckets = (Bucket<Node>[])new Bucket<?>[64];
+    }
+
+    @Override public void add(Node node) {
+      final long key = integralPriority(node);
+      final double estimate = node.getEstimate();
+      if (key > Integer.MAX_VALUE - 1
+          || estimate != (int)estimate || estimate < 0) {
+        throw new IllegalArgumentException
+            ("Node " + node + " has priority " + key + " and estimate "
+             + estimate + ", not suitable for bucketing");
+      }
+      final int f = (int)key;
+      if (f >= buckets.length) {
+        buckets = Arrays.copyOf
+            (buckets, Math.max(f+1, 2*buckets.length));
+      }
+      Bucket<Node> bucket = buckets[f];
+      if (bucket == null) {
+        bucket = new Bucket<Node>();
+        buckets[f] = bucket;
+      }
+      bucket.push(node, (int)estimate);
+      if (size == 0 || f < lowest) { lowest = f; }
+      size += 1;
+    }
+
+    @Override public boolean isEmpty() {
+      return size == 0;
+    }
+
+    @Override public Node pop() {
+      if (size == 0) {
+        throw new FrontierEmptyException();
+      }
+      while (buckets[lowest] == null || buckets[lowest].size == 0) {
+        lowest += 1;
+      }
+      size -= 1;
+      return buckets[lowest].pop();
+    }
+
+    @Override public int countOpen() {
+      return size;
+    }
+
+    @Override public void debugDisplayFrontier() {
+      super.debugDisplayFrontier();
+    }
+  }
+
+  /**
+   *  Factory for {@linkplain search.Frontiers.BucketQueue bucket
+   *  array-based} frontier implementations.
+   */
+  public static <Node extends KnowsOwnPriority> Supplier<BucketQueue<Node>>
+      bucketQueueFactory() {
+    return new Supplier<BucketQueue<Node>>() {
+      public BucketQueue<Node> get() {
+        return new BucketQueue<Node>();
+      }
+    };
+  }
+
+  // = = = = = = = = = = = = = = = = = = = = = = = = = = = = = = = = =
+
+  /**
+   *  A frontier as a radix heap, for A* with a consistent heuristic
+   *  and non-negative integer priorities whose range is too wide for
+   *  a {@link BucketQueue}.  Bucket 0 holds the nodes whose priority
+   *  equals that of the last node popped; bucket <i>i</i> holds those
+   *  whose priority first differs from it at bit <i>i-1</i>.  When
+   *  bucket 0 runs out, the lowest non-empty bucket is emptied into
+   *  the buckets below it, so each node moves at most 64 times over
+   *  the whole search, and no two nodes are ever compared.  Nodes of
+   *  the same priority are popped last-in, first-out.
+   *
+   *  Nodes must {@linkplain KnowsOwnPriority store} their priority
+   *  before they are added, as {@link AStarFrontierSearcher} arranges,
+   *  and this frontier can be passed to its constructors as
+   *  <tt>(cmp) -&gt; Frontiers.radixHeapFactory(true)</tt>.
+   *
+   *  A radix heap cannot hold a priority below the last one popped.
+   *  A strict radix heap throws {@link NonMonotonePriorityException}
+   *  when such a node is added.  A lenient one instead counts the
+   *  node, which {@link #getNonMonotoneAdds} reports, and files it
+   *  with the nodes of the last priority popped, so that it is popped
+   *  next.
+   */
+  public static class RadixHeap<Node extends KnowsOwnPriority>
+      extends DebuggingFrontier<Node> {
+
+    private final boolean strict;
+    private final ArrayList<Node>[] buckets;
+    private long last = 0;
+    private int size = 0;
+    private long nonMonotoneAdds = 0;
+
+    @SuppressWarnings("unchecked")
+    public RadixHeap(boolean strict) {
+      this.strict = strict;
+      this.buckets = (ArrayList<Node>[])new ArrayList<?>[65];
+      for(int i=0; i<buckets.length; i++) {
+        buckets[i] = new ArrayList<Node>();
+      }
+    }
+
+    /**
+     *  Returns the number of nodes added whose priority was below that
+     *  of a node already popped.  Always zero for a strict radix heap,
+     *  which throws an exception instead.
+     */
+    public long getNonMonotoneAdds() { return nonMonotoneAdds; }
+
+    private int bucketFor(long key) {
+      return key == last ? 0 : 64 - Long.numberOfLeadingZeros(key ^ last);
+    }
+
+    @Override public void add(Node node) {
+      final long key = integralPriority(node);
+      if (key < last) {
+        if (strict) {
+          throw new NonMonotonePriorityException(key, last);
+        }
+        nonMonotoneAdds += 1;
+        buckets[0].add(node);
+      } else {
+        buckets[bucketFor(key)].add(node);
+      }
+      size += 1;
+    }
+
+    @Override public boolean isEmpty() {
+      return size == 0;
+    }
+
+    @Override public Node pop() {
+      if (size == 0) {
+        throw new FrontierEmptyException();
+      }
+      if (buckets[0].isEmpty()) {
+        int i = 1;
+        while (buckets[i].isEmpty()) {
+          i += 1;
+        }
+        final ArrayList<Node> bucket = buckets[i];
+        long min = Long.MAX_VALUE;
+        for(final Node node : bucket) {
+          min = Math.min(min, integralPriority(node));
+        }
+        last = min;
+        for(final Node node : bucket) {
+          buckets[bucketFor(integralPriority(node))].add(node);
+        }
+        bucket.clear();
+      }
+      size -= 1;
+      final ArrayList<Node> bucket = buckets[0];
+      return bucket.remove(bucket.size()-1);
+    }
+
+    @Override public int countOpen() {
+      return size;
+    }
+
+    @Override public void debugDisplayFrontier() {
+      super.debugDisplayFrontier();
+    }
+  }
+
+  /**
+   *  Factory for {@linkplain search.Frontiers.RadixHeap radix
+   *  heap-based} frontier implementations.
+   *
+   * @param strict If <tt>true</tt>, the generated heaps throw {@link
+   * NonMonotonePriorityException} for a node with a lower priority
+   * than one already popped; otherwise they count such nodes.
+   */
+  public static <Node extends KnowsOwnPriority> Supplier<RadixHeap<Node>>
+      radixHeapFactory(final boolean strict) {
+    return new Supplier<RadixHeap<Node>>() {
+      public RadixHeap<Node> get() {
+        return new RadixHeap<Node>(strict);
+      }
+    };
+  }
+
   // =================================================================
 
   /**
-   *  A queue as a priority queue, for e.g. BFS.
+   *  A queue as a priority queue, for e.g. BFS.  The queue is an
+   *  {@link java.util.ArrayDeque ArrayDeque}, a ring buffer costing one
+   *  array slot per node.  Optionally the queue also keeps a count of
+   *  each node it holds in a hash table, so that {@link #contains}
+   *  takes constant time rather than scanning the whole queue.
    */
   public static class Queue<Node> implements FrontierCheckingStructure<Node> {
 
-    protected final java.util.LinkedList<Node>
-        queue = new java.util.LinkedList<Node>();
+    protected final java.util.ArrayDeque<Node>
+        queue = new java.util.ArrayDeque<Node>();
+    private final HashMap<Node,Integer> index;
+
+    /**
+     *  Creates a queue without the membership index.
+     */
+    public Queue() {
+      this(false);
+    }
+
+    /**
+     * @param indexed If <tt>true</tt>, the queue keeps a hash index of
+     * its nodes for {@link #contains}.
+     */
+    public Queue(boolean indexed) {
+      this.index = indexed ? new HashMap<Node,Integer>() : null;
+    }
 
     @Override public void add(Node n) {
       queue.offer(n);
+      if (index != null) {
+        index.merge(n, 1, Integer::sum);
+      }
     }
 
     @Override public boolean isEmpty() {
@@ -193,11 +941,16 @@ public class Frontiers {
     }
 
     @Override public Node pop() {
+      final Node result;
       try {
-        return queue.remove();
+        result = queue.remove();
       } catch (NoSuchElementException cause) {
         throw new FrontierEmptyException(cause);
       }
+      if (index != null) {
+        index.computeIfPresent(result, (n, count) -> count==1 ? null : count-1);
+      }
+      return result;
     }
 
     @Override public int countOpen() {
@@ -205,7 +958,7 @@ public class Frontiers {
     }
 
     @Override public boolean contains(Node n) {
-      return queue.contains(n);
+      return index != null ? index.containsKey(n) : queue.contains(n);
     }
   }
 
@@ -218,4 +971,180 @@ public class Frontiers {
 
   }
 
+  /**
+   *  Factory for {@linkplain search.Frontiers.Queue queues} which
+   *  keep a hash index of their nodes, for constant-time {@link
+   *  Queue#contains contains}.
+   */
+  public static <Node> Supplier<Queue<Node>> indexedQueueFactory() {
+    return new Supplier<Queue<Node>>() {
+      public Queue<Node> get() {
+        return new Queue<Node>(true);
+      }
+    };
+  }
+
+  // = = = = = = = = = = = = = = = = = = = = = = = = = = = = = = = = =
+
+  /**
+   *  The frontier of a {@linkplain BeamSearcher beam search}, which
+   *  holds two layers of the search tree: the current layer, whose
+   *  nodes are removed best first, and the next layer, to which all
+   *  new nodes go.  Only the best <i>k</i> nodes of the next layer
+   *  are kept, ranked by some heuristic, lowest first: once the next
+   *  layer is full, a new node either replaces the worst node in the
+   *  layer, or is dropped.  When the current layer runs out, the next
+   *  layer becomes current, unless the beam has reached its greatest
+   *  depth, in which case it is empty.
+   *
+   *  Each layer holds at most one node of each state, and {@link
+   *  #contains} checks whether either layer holds a node's state.
+   */
+  public static class Beam<S, N extends SearchTreeNode<N,S>>
+      implements FrontierCheckingStructure<N> {
+
+    private static final class Ranked<N> {
+      final N node;
+      final double rank;
+      final long order;
+
+      Ranked(N node, double rank, long order) {
+        this.node = node;
+        this.rank = rank;
+        this.order = order;
+      }
+    }
+
+    // Best first, and among equal ranks first added first.
+    private static final Comparator<Ranked<?>> BEST_FIRST =
+        (a, b) -> a.rank != b.rank ? Double.compare(a.rank, b.rank)
+            : Long.compare(a.order, b.order);
+
+    private final int width, maxDepth;
+    private final Function<N,Double> ranking;
+    private final java.util.ArrayDeque<Ranked<N>> current =
+        new java.util.ArrayDeque<>();
+    private final java.util.PriorityQueue<Ranked<N>> next;
+    private final HashMap<S,Ranked<N>>
+        currentByState = new HashMap<>(),
+        nextByState = new HashMap<>();
+    private long added = 0, dropped = 0;
+    private int depth = -1;
+
+    /**
+     * @param width The most nodes kept in the next layer
+     *
+     * @param ranking The heuristic ranking nodes, lower values better
+     */
+    public Beam(int width, Function<N,Double> ranking) {
+      this(width, Integer.MAX_VALUE, ranking);
+    }
+
+    /**
+     * @param width The most nodes kept in the next layer
+     *
+     * @param maxDepth The deepest layer, counting the layer of the
+     * first node added as zero, after which the beam holds no more
+     * nodes
+     *
+     * @param ranking The heuristic ranking nodes, lower values better
+     */
+    public Beam(int width, int maxDepth, Function<N,Double> ranking) {
+      if (width < 1) {
+        throw new IllegalArgumentException("Beam width " + width);
+      }
+      this.width = width;
+      this.maxDepth = maxDepth;
+      this.ranking = ranking;
+      this.next = new java.util.PriorityQueue<>(width, BEST_FIRST.reversed());
+    }
+
+    @Override public void add(N n) {
+      final S state = n.getState();
+      if (nextByState.containsKey(state)) {
+        dropped += 1;
+        return;
+      }
+      final Ranked<N> ranked = new Ranked<>(n, ranking.apply(n), added++);
+      if (next.size() >= width) {
+        if (BEST_FIRST.compare(ranked, next.peek()) >= 0) {
+          dropped += 1;
+          return;
+        }
+        final Ranked<N> worst = next.poll();
+        nextByState.remove(worst.node.getState());
+        dropped += 1;
+      }
+      next.add(ranked);
+      nextByState.put(state, ranked);
+    }
+
+    @Override public boolean isEmpty() {
+      return current.isEmpty() && (next.isEmpty() || depth >= maxDepth);
+    }
+
+    @Override public N pop() {
+      if (current.isEmpty()) {
+        if (isEmpty()) {
+          throw new FrontierEmptyException();
+        }
+        depth += 1;
+        final ArrayList<Ranked<N>> layer = new ArrayList<>(next);
+        layer.sort(BEST_FIRST);
+        current.addAll(layer);
+        currentByState.clear();
+        currentByState.putAll(nextByState);
+        next.clear();
+        nextByState.clear();
+      }
+      final Ranked<N> result = current.poll();
+      currentByState.remove(result.node.getState());
+      return result.node;
+    }
+
+    @Override public int countOpen() {
+      return current.size() + next.size();
+    }
+
+    @Override public boolean contains(N n) {
+      final S state = n.getState();
+      return currentByState.containsKey(state)
+          || nextByState.containsKey(state);
+    }
+
+    /**
+     *  Returns the number of nodes which were given to this frontier
+     *  but dropped, or later pushed out of the next layer by better
+     *  nodes.
+     */
+    public long getDropped() { return dropped; }
+
+    /**
+     *  Returns the depth of the current layer, or -1 if no node has
+     *  yet been removed.
+     */
+    public int getDepth() { return depth; }
+  }
+
+  /**
+   *  Factory for {@linkplain Beam beam frontiers} of a given width.
+   */
+  public static <S, N extends SearchTreeNode<N,S>> Supplier<Beam<S,N>>
+      beamFactory(final int width, final Function<N,Double> ranking) {
+    return beamFactory(width, Integer.MAX_VALUE, ranking);
+  }
+
+  /**
+   *  Factory for {@linkplain Beam beam frontiers} of a given width and
+   *  greatest depth.
+   */
+  public static <S, N extends SearchTreeNode<N,S>> Supplier<Beam<S,N>>
+      beamFactory(final int width, final int maxDepth,
+                  final Function<N,Double> ranking) {
+    return new Supplier<Beam<S,N>>() {
+      public Beam<S,N> get() {
+        return new Beam<S,N>(width, maxDepth, ranking);
+      }
+    };
+  }
 }
@@ -5,6 +5,9 @@
 // Author: John Maraist
 
 package search;
+import java.io.UncheckedIOException;
+import java.nio.channels.ClosedByInterruptException;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -36,6 +39,7 @@ public class GraphSearcher<State,
       notAddedToFrontier=-1,
       expandedFromFrontier=-1,
       unexpandedInFrontier=-1;
+  private double omissionProbability=-1;
 
   /**
    * The constructor parameters encode the particlar behavior which
@@ -75,31 +79,79 @@ public class GraphSearcher<State,
    * search space which is returned from this search
    * @throws SearchFailureException When the search does not lead to a
    * goal state
+   * @throws SearchCancelledException When the thread running the
+   * search is interrupted
    */
   public Node search(State initial) throws SearchFailureException {
-
-    // Initialize the frontier and the root node of the search tree.
     final Frontier frontier = frontierFactory.get();
+
+    // Create a new, empty existing set.  In this framework the
+    // existing set also checks memberhsip in the frontier.
+    final ExploredSet<Node> exploredSet = exploredSetFactory.apply(frontier);
+    try {
+      return search(initial, frontier, exploredSet);
+    } catch (UncheckedIOException e) {
+      // A frontier which keeps nodes in files loses them when the
+      // thread is interrupted while reading or writing.
+      if (e.getCause() instanceof ClosedByInterruptException) {
+        Thread.interrupted();
+        throw new SearchCancelledException();
+      }
+      throw e;
+    } finally {
+      frontier.release();
+      exploredSet.release();
+    }
+  }
+
+  private Node search(State initial, Frontier frontier,
+                      ExploredSet<Node> exploredSet)
+      throws SearchFailureException {
+
+    // Initialize the root node of the search tree.
     final Node initialNode = initializer.apply(initial);
     if (getDebug()) { debugInitialNode(initialNode); }
+    beforeFrontierAddition(initialNode);
     frontier.add(initialNode);
     this.addedToFrontier = 1;
     this.notAddedToFrontier = 0;
     this.expandedFromFrontier = 0;
 
-    // Create a new, empty existing set.  In this framework the
-    // existing set also checks memberhsip in the frontier.
-    final ExploredSet<Node> exploredSet = exploredSetFactory.apply(frontier);
     exploredSet.noteInitial(initialNode);
 
     // Initialize the manager for reacting to expanding a node
     // containing a goal state.
     final GoalChecker<Node> goalChecker = goalCheckerFactory.get();
 
+    // What to do with each node generated by expanding a node from
+    // the frontier.  Built once per search and handed to each node's
+    // forEachChild, so that nodes which generate their children
+    // directly need not allocate an Iterable.
+    final Consumer<Node> childHandler = (childNode) -> {
+      if (getDebug()) { debugExpansion(childNode); }
+
+      if (exploredSet.shouldAddToFrontier(childNode)) {
+        if (getDebug()) { debugFrontierAddition(childNode); }
+        this.addedToFrontier += 1;
+        beforeFrontierAddition(childNode);
+        frontier.add(childNode);
+      } else {
+        if (getDebug()) { debugFrontierNonaddition(childNode); }
+        this.notAddedToFrontier += 1;
+      }
+    };
+
     // While the frontier is not empty, choose a leaf node and remove
     // it from the frontier.
     if (getDebug()) { debugFrontier(frontier); }
     while (!frontier.isEmpty()) {
+      if (Thread.interrupted()) {
+        this.unexpandedInFrontier = frontier.countOpen();
+        this.omissionProbability =
+            exploredSet.estimatedOmissionProbability();
+        throw new SearchCancelledException();
+      }
+
       final Node node = frontier.pop();
       final State state = node.getState();
       if (getDebug()) { debugFrontierRemoval(node); }
@@ -109,6 +161,8 @@ public class GraphSearcher<State,
       if (goalChecker.test(node)) {
         if (getDebug()) { debugGoalFound(node); }
         this.unexpandedInFrontier = frontier.countOpen();
+        this.omissionProbability =
+            exploredSet.estimatedOmissionProbability();
         return node;
       }
 
@@ -120,18 +174,7 @@ public class GraphSearcher<State,
       // frontier if they are not already in either the frontier or
       // the explored set.
       this.expandedFromFrontier += 1;
-      for(final Node childNode : node.expand()) {
-        if (getDebug()) { debugExpansion(childNode); }
-
-        if (exploredSet.shouldAddToFrontier(childNode)) {
-          if (getDebug()) { debugFrontierAddition(childNode); }
-          this.addedToFrontier += 1;
-          frontier.add(childNode);
-        } else {
-          if (getDebug()) { debugFrontierNonaddition(childNode); }
-          this.notAddedToFrontier += 1;
-        }
-      }
+      node.forEachChild(childHandler);
 
       if (getDebug()) { debugFrontier(frontier); }
     }
@@ -141,6 +184,7 @@ public class GraphSearcher<State,
     // the exception.
     if (getDebug()) { debugFrontierExhausted(goalChecker); }
     this.unexpandedInFrontier = frontier.countOpen();
+    this.omissionProbability = exploredSet.estimatedOmissionProbability();
     return goalChecker.get();
   }
 
@@ -162,6 +206,16 @@ public class GraphSearcher<State,
     }
   }
 
+  /**
+   *  Called with each tree node just before it is added to the
+   *  frontier, including the initial node.  Does nothing by default;
+   *  searchers whose frontiers rank nodes override this method to
+   *  compute each node's rank once, and store it in the node.
+   *
+   * @param node The tree node about to be added
+   */
+  protected void beforeFrontierAddition(Node node) { }
+
   /**
    *  This method prints a debugging message about the initial tree
    *  node of a search.
@@ -283,6 +337,17 @@ public class GraphSearcher<State,
     return unexpandedInFrontier;
   }
 
+  /**
+   *  Returns the {@linkplain ExploredSet#estimatedOmissionProbability
+   *  estimated probability} that the explored set of the last search,
+   *  if approximate, would by the end of the search wrongly omit a
+   *  new node.
+   * @return -1 if no search has been executed
+   */
+  public double getLastOmissionProbability() {
+    return omissionProbability;
+  }
+
   private boolean debug = false;
 
   /**
@@ -0,0 +1,441 @@
+// Rushhour AI assignment
+//
+// Description: Sample Rushhour boards
+// Date: December 2020
+// Author: John Maraist
+
+package search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ *  Hash-distributed A* (HDA*, Kishimoto, Fukunaga and Botea 2009): A*
+ *  search on several threads, each of which owns the states with some
+ *  of the hash codes.  Each worker keeps its own priority queue
+ *  frontier, ordered by <i>f(n) = g(n)+h(n)</i>, and its own table of
+ *  the least cost with which it has reached each of its states.  A
+ *  worker expands the best node of its own frontier, and sends each
+ *  child to the child state's owner through that worker's lock-free
+ *  mailbox.  So no two threads ever share a frontier or explored set,
+ *  and duplicates are detected where the state is owned.
+ *
+ *  Workers do not expand nodes in a globally best-first order, so
+ *  the first goal a worker reaches need not be the cheapest.  Instead
+ *  the cheapest goal reached so far is kept as the incumbent solution
+ *  with cost <i>C</i>, and nodes with <i>f(n)</i> &ge; <i>C</i> are
+ *  discarded.  The search ends when every frontier and every mailbox
+ *  is empty, which a shared count of nodes which are in a frontier,
+ *  in a mailbox, or being expanded detects: a node's children are
+ *  counted before the node itself is counted off, so the count cannot
+ *  touch zero while work remains.  A worker with nothing to do parks
+ *  until a node is posted to its mailbox or the search ends, rather
+ *  than spinning.  At that point every node with
+ *  <i>f(n)</i> &lt; <i>C</i> has been expanded, so with an admissible
+ *  heuristic the incumbent is optimal.  A state reached again at
+ *  lower cost is reopened, so the heuristic need not be consistent.
+ *
+ *  Among several optimal solutions, which one is returned depends on
+ *  the timing of the threads.  States are compared with their
+ *  <tt>equals</tt> and <tt>hashCode</tt> methods, and must be safe to
+ *  share between threads, as must the expansion of nodes and the
+ *  heuristic.
+ *
+ * @param <State> Type representing elements of the search space.
+ * @param <Node> Type representing nodes in the search tree.  Each
+ * node typically contains a reference to a State element.
+ */
+public class HDAStarSearcher
+    <State, Node extends SearchTreeNode<Node,State> & KnowsOwnCost> {
+
+  /**
+   *  The longest an idle worker parks before looking at its mailbox
+   *  again, in nanoseconds.
+   */
+  private static final long MAX_PARK_NANOS = 10_000_000L;
+
+  private final Predicate<Node> goalTest;
+  private final Function<Node,Double> heuristic;
+  private final Function<State,Node> initializer;
+  private final int threads;
+
+  private long
+      addedToFrontier=-1,
+      expandedFromFrontier=-1,
+      sentToOtherWorkers=-1;
+
+  /**
+   * Constructor for this class with one worker for each available
+   * processor.
+   *
+   * @param goalTest A boolean-returning function checking whether a
+   * tree node contains a goal state.
+   *
+   * @param heuristic Heuristic function for this search application.
+   *
+   * @param initializer Creates an initial tree node from a search
+   * space element.
+   */
+  public HDAStarSearcher(Predicate<Node> goalTest,
+                         Function<Node,Double> heuristic,
+                         Function<State,Node> initializer) {
+    this(goalTest, heuristic, initializer,
+         Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Primary constructor for this class.
+   *
+   * @param goalTest A boolean-returning function checking whether a
+   * tree node contains a goal state.
+   *
+   * @param heuristic Heuristic function for this search application.
+   *
+   * @param initializer Creates an initial tree node from a search
+   * space element.
+   *
+   * @param threads The number of workers.
+   */
+  public HDAStarSearcher(Predicate<Node> goalTest,
+                         Function<Node,Double> heuristic,
+                         Function<State,Node> initializer,
+                         int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("Need at least one worker");
+    }
+    this.goalTest = goalTest;
+    this.heuristic = heuristic;
+    this.initializer = initializer;
+    this.threads = threads;
+  }
+
+  /**
+   *  Returns the number of workers which each search runs.
+   */
+  public int getThreads() { return threads; }
+
+  /**
+   *  Searches for a goal reachable from an initial state.
+   *
+   * @param initial The starting element
+   * @return A goal node, with an admissible heuristic one of least
+   * cost
+   * @throws SearchFailureException if no goal is reachable
+   * @throws SearchCancelledException if the calling thread is
+   * interrupted while waiting for the workers, which are then stopped
+   */
+  public Node search(State initial) throws SearchFailureException {
+    final Search search = new Search();
+    final Node initialNode = initializer.apply(initial);
+    final double estimate = heuristic.apply(initialNode);
+    search.outstanding.set(1);
+    search.ownerOf(initialNode.getState())
+        .receive(new Entry<>(initialNode, initialNode.getCost()+estimate,
+                             estimate));
+
+    final Thread[] running = new Thread[threads];
+    for(int i=0; i<threads; i++) {
+      running[i] = new Thread(search.workers.get(i), "HDA* worker " + i);
+      search.workers.get(i).thread = running[i];
+    }
+    for(final Thread thread : running) {
+      thread.start();
+    }
+    boolean interrupted = false;
+    for(int i=0; i<threads; i++) {
+      while (true) {
+        try {
+          running[i].join();
+          break;
+        } catch (InterruptedException e) {
+          interrupted = true;
+          search.stopped = true;
+          search.wakeAll();
+        }
+      }
+    }
+
+    this.addedToFrontier = 0;
+    this.expandedFromFrontier = 0;
+    this.sentToOtherWorkers = 0;
+    for(final Worker worker : search.workers) {
+      this.addedToFrontier += worker.added;
+      this.expandedFromFrontier += worker.expanded;
+      this.sentToOtherWorkers += worker.sent;
+    }
+
+    final Throwable failure = search.failure.get();
+    if (failure instanceof RuntimeException) {
+      throw (RuntimeException)failure;
+    } else if (failure instanceof Error) {
+      throw (Error)failure;
+    }
+    if (interrupted) {
+      throw new SearchCancelledException();
+    }
+    if (search.incumbent == null) {
+      throw new SearchFailureException();
+    }
+    return search.incumbent;
+  }
+
+  /**
+   *  Convenience method for when we care only about whether a
+   *  solution exists, and not what it is.
+   *
+   * @param initial The starting element
+   * @return <tt>true</tt> if {@link #search} would return a final
+   * node with the same initial state, otherwise <tt>false</tt>
+   */
+  public boolean solvable(final State initial) {
+    try {
+      final Node result = search(initial);
+      return true;
+    } catch (SearchFailureException e) {
+      return false;
+    }
+  }
+
+  // -----------------------------------------------------------------
+  // The state of one search.
+
+  /**
+   *  A node with its priority and heuristic estimate, computed once
+   *  by the worker which generates it.
+   */
+  private static final class Entry<Node>
+      implements Comparable<Entry<Node>> {
+    final Node node;
+    final double f, h;
+
+    Entry(Node node, double f, double h) {
+      this.node = node;
+      this.f = f;
+      this.h = h;
+    }
+
+    /**
+     *  Orders by <i>f</i>, and among equal <i>f</i> prefers the node
+     *  estimated closer to a goal.
+     */
+    @Override public int compareTo(Entry<Node> that) {
+      final int byF = Double.compare(f, that.f);
+      return byF != 0 ? byF : Double.compare(h, that.h);
+    }
+  }
+
+  private final class Search {
+    final ArrayList<Worker> workers = new ArrayList<>();
+
+    // Nodes in a frontier, in a mailbox, or being expanded.
+    final AtomicLong outstanding = new AtomicLong();
+
+    // The cheapest goal found so far, and its cost.
+    volatile Node incumbent = null;
+    volatile double bound = Double.POSITIVE_INFINITY;
+
+    final AtomicReference<Throwable> failure = new AtomicReference<>();
+    volatile boolean stopped = false;
+
+    Search() {
+      for(int i=0; i<threads; i++) {
+        workers.add(new Worker(this));
+      }
+    }
+
+    Worker ownerOf(State state) {
+      final int hash = state.hashCode() * 0x9E3779B9;
+      return workers.get((int)(((hash ^ (hash >>> 16)) & 0xFFFFFFFFL)
+                               % threads));
+    }
+
+    synchronized void offer(Node goal) {
+      if (goal.getCost() < bound) {
+        incumbent = goal;
+        bound = goal.getCost();
+      }
+    }
+
+    boolean finished() {
+      return outstanding.get() == 0 || stopped || failure.get() != null;
+    }
+
+    /**
+     *  Counts off nodes which are no longer outstanding, waking every
+     *  worker if that was the last of them.
+     */
+    void countOff(long nodes) {
+      if (outstanding.addAndGet(-nodes) == 0) {
+        wakeAll();
+      }
+    }
+
+    void wakeAll() {
+      for(final Worker worker : workers) {
+        LockSupport.unpark(worker.thread);
+      }
+    }
+  }
+
+  private final class Worker implements Runnable {
+    final PriorityQueue<Entry<Node>> open = new PriorityQueue<>();
+    final HashMap<State,Double> best = new HashMap<>();
+    final ConcurrentLinkedQueue<Entry<Node>> mailbox =
+        new ConcurrentLinkedQueue<>();
+    final Search search;
+    long added = 0, expanded = 0, sent = 0;
+
+    // The thread running this worker, and whether it is parked or
+    // about to park for want of work.
+    Thread thread;
+    volatile boolean idle = false;
+
+    Worker(Search search) {
+      this.search = search;
+    }
+
+    @Override public void run() {
+      try {
+        while (!search.finished()) {
+          boolean worked = false;
+          Entry<Node> entry;
+          while ((entry = mailbox.poll()) != null) {
+            receive(entry);
+            worked = true;
+          }
+
+          entry = open.poll();
+          if (entry != null) {
+            expand(entry);
+            search.countOff(1);
+          } else if (!worked) {
+            park();
+          }
+        }
+      } catch (Throwable t) {
+        search.failure.compareAndSet(null, t);
+        search.wakeAll();
+      }
+    }
+
+    /**
+     *  Waits for a node to be posted, or for the search to end.  The
+     *  idle flag is raised before the mailbox is looked at a last
+     *  time, and a sender looks at the flag after posting, so a node
+     *  posted meanwhile is either seen here or unparks this worker.
+     *  The wait is bounded all the same, as a spurious or missed wake
+     *  only costs one more look at the mailbox.
+     */
+    private void park() {
+      idle = true;
+      if (mailbox.isEmpty() && !search.finished()) {
+        LockSupport.parkNanos(this, MAX_PARK_NANOS);
+      }
+      idle = false;
+    }
+
+    /**
+     *  Posts a node of a state this worker owns from another worker.
+     */
+    void post(Entry<Node> entry) {
+      mailbox.add(entry);
+      if (idle) {
+        LockSupport.unpark(thread);
+      }
+    }
+
+    /**
+     *  Takes in a node of a state this worker owns, already counted
+     *  as outstanding, adding it to the frontier unless it cannot
+     *  improve on the incumbent or the state has been reached as
+     *  cheaply before.
+     */
+    void receive(Entry<Node> entry) {
+      final State state = entry.node.getState();
+      final double cost = entry.node.getCost();
+      final Double previous = best.get(state);
+      if (entry.f >= search.bound
+          || (previous != null && previous <= cost)) {
+        search.countOff(1);
+        return;
+      }
+      best.put(state, cost);
+      open.add(entry);
+      added += 1;
+    }
+
+    void expand(Entry<Node> entry) {
+      final Node node = entry.node;
+      if (best.get(node.getState()) < node.getCost()) {
+        return;
+      }
+
+      // Everything left in this frontier is at least as bad.
+      if (entry.f >= search.bound) {
+        search.countOff(open.size());
+        open.clear();
+        return;
+      }
+
+      if (goalTest.test(node)) {
+        search.offer(node);
+        return;
+      }
+
+      expanded += 1;
+      node.forEachChild((child) -> {
+          final double estimate = heuristic.apply(child);
+          final double f = child.getCost() + estimate;
+          if (f >= search.bound) {
+            return;
+          }
+          final Entry<Node> childEntry = new Entry<>(child, f, estimate);
+          final Worker owner = search.ownerOf(child.getState());
+          search.outstanding.incrementAndGet();
+          if (owner == this) {
+            receive(childEntry);
+          } else {
+            owner.post(childEntry);
+            sent += 1;
+          }
+        });
+    }
+  }
+
+  // -----------------------------------------------------------------
+  // Statistics.
+
+  /**
+   *  Returns the number of nodes which were added to a worker's
+   *  frontier in the last search.
+   * @return -1 if no search has been executed
+   */
+  public long getLastAddedToFrontier() {
+    return addedToFrontier;
+  }
+
+  /**
+   *  Returns the number of nodes which were expanded in the last
+   *  search.
+   * @return -1 if no search has been executed
+   */
+  public long getLastExpandedFromFrontier() {
+    return expandedFromFrontier;
+  }
+
+  /**
+   *  Returns the number of nodes which were sent from one worker to
+   *  another in the last search.
+   * @return -1 if no search has been executed
+   */
+  public long getLastSentToOtherWorkers() {
+    return sentToOtherWorkers;
+  }
+}
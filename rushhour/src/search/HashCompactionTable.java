@@ -0,0 +1,110 @@
+// Rushhour AI assignment
+//
+// Description: Sample Rushhour boards
+// Date: December 2020
+// Author: John Maraist
+
+package search;
+
+/**
+ *  Approximate set of 64-bit fingerprints by hash compaction: each
+ *  fingerprint is compressed to a 32-bit signature, and only the
+ *  signatures are kept, in an open-addressing table of <tt>int</tt>s.
+ *  Two fingerprints with the same signature cannot be told apart, so
+ *  a fingerprint never added is reported present with probability
+ *  about <i>n</i>/2<sup>32</sup> after <i>n</i> signatures have been
+ *  added.  The table doubles when half full, so it costs 8 to 16
+ *  bytes per signature, up to 2<sup>30</sup> slots; past that it fills
+ *  up without growing, and refuses a new signature rather than leave
+ *  no slot empty.
+ */
+final class HashCompactionTable {
+
+  private int[] signatures;
+  private int mask;
+  private long size = 0;
+
+  /**
+   * @param expected The number of fingerprints the table should hold
+   * before it first grows
+   */
+  HashCompactionTable(int expected) {
+    int capacity = 16;
+    while (capacity < 2*expected && capacity < (1<<30)) {
+      capacity <<= 1;
+    }
+    this.signatures = new int[capacity];
+    this.mask = capacity-1;
+  }
+
+  /**
+   *  Adds the signature of a fingerprint.
+   *
+   * @return <tt>false</tt> if the signature was already present, so
+   * that the fingerprint may have been added before
+   *
+   * @throws IllegalStateException if the signature is new, but the
+   * table is at its largest and has only one empty slot left, which
+   * lookups need to stop probing
+   */
+  boolean add(long fingerprint) {
+    long z = fingerprint * 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 29)) * 0xBF58476D1CE4E5B9L;
+    int signature = (int)(z ^ (z >>> 32));
+    if (signature == 0) {
+      // Zero marks an empty slot.
+      signature = 1;
+    }
+    int slot = slotFor(signature);
+    int found;
+    while ((found = signatures[slot]) != 0) {
+      if (found == signature) {
+        return false;
+      }
+      slot = (slot+1) & mask;
+    }
+    if (size+1 >= signatures.length) {
+      throw new IllegalStateException
+          ("Hash compaction table is full at " + size + " signatures");
+    }
+    signatures[slot] = signature;
+    size += 1;
+    if (2*size > signatures.length && signatures.length < (1<<30)) {
+      grow();
+    }
+    return true;
+  }
+
+  /**
+   *  Returns the probability that a fingerprint not yet added would
+   *  now be reported present: that its signature is one of those
+   *  already in the table.
+   */
+  double falsePositiveRate() {
+    return -Math.expm1(size * Math.log1p(-0x1p-32));
+  }
+
+  /**
+   *  The slot is taken from the signature, which is already mixed,
+   *  rather than from other bits of the fingerprint, so that the
+   *  table can be rehashed from the signatures alone.
+   */
+  private int slotFor(int signature) {
+    return signature & mask;
+  }
+
+  private void grow() {
+    final int[] old = signatures;
+    signatures = new int[2*old.length];
+    mask = signatures.length-1;
+    for(final int signature : old) {
+      if (signature != 0) {
+        int slot = slotFor(signature);
+        while (signatures[slot] != 0) {
+          slot = (slot+1) & mask;
+        }
+        signatures[slot] = signature;
+      }
+    }
+  }
+}
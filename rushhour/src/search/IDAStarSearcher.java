@@ -0,0 +1,333 @@
+// Rushhour AI assignment
+//
+// Description: Sample Rushhour boards
+// Date: December 2020
+// Author: John Maraist
+
+package search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ *  Iterative-deepening A*: a series of depth-first searches, each
+ *  bounded by a limit on <i>f(n) = g(n)+h(n)</i>, where the limit for
+ *  each search is the least <i>f</i> which exceeded the limit of the
+ *  previous one.  With an admissible heuristic the first goal found
+ *  is optimal, as for {@linkplain AStarSearcher A*}, but there is no
+ *  frontier or explored set: apart from the current path, memory is
+ *  limited to a transposition table of fixed size.
+ *
+ *  Three refinements cut down the re-expansion which plain IDA*
+ *  suffers on graphs with many paths to the same state:
+ *
+ *  <ul>
+ *
+ *  <li>A child whose state is that of its grandparent, which simply
+ *  undoes the move just made, is never searched.</li>
+ *
+ *  <li>The children of a node are searched in order of their
+ *  heuristic estimates, lowest first, so that a goal within the limit
+ *  tends to be reached sooner in the last iteration.</li>
+ *
+ *  <li>The transposition table records, for a state, the cost with
+ *  which it was last reached and in which iteration.  A state reached
+ *  again in the same iteration with no lower cost is not searched
+ *  again, since everything below it within the limit has already
+ *  been searched.  The table is direct-mapped, and when two states
+ *  collide the new entry replaces the old one if the old one is from
+ *  an earlier iteration, or if the new state was reached with no
+ *  greater cost, and so heads the larger subtree.</li>
+ *
+ *  </ul>
+ *
+ * @param <State> Type representing elements of the search space.
+ * @param <Node> Type representing nodes in the search tree.  Each
+ * node typically contains a reference to a State element.
+ */
+public class IDAStarSearcher
+    <State, Node extends SearchTreeNode<Node,State> & KnowsOwnCost> {
+
+  /**
+   *  The default number of entries in the transposition table.
+   */
+  public static final int DEFAULT_TABLE_SIZE = 1 << 16;
+
+  private final Predicate<Node> goalTest;
+  private final Function<Node,Double> heuristic;
+  private final Function<State,Node> initializer;
+
+  private final Object[] tableStates;
+  private final double[] tableCosts;
+  private final int[] tableIterations;
+  private final int tableMask;
+
+  private int iteration;
+  private double limit;
+  private Node found;
+  private boolean cancelled;
+
+  private long
+      expanded=-1,
+      generated=-1,
+      iterations=-1,
+      tableHits=-1,
+      parentPrunes=-1;
+
+  /**
+   * Constructor for this class with a transposition table of the
+   * {@linkplain #DEFAULT_TABLE_SIZE default size}.
+   *
+   * @param goalTest A boolean-returning function checking whether a
+   * tree node contains a goal state.
+   *
+   * @param heuristic Heuristic function for this search application.
+   *
+   * @param initializer Creates an initial tree node from a search
+   * space element.
+   */
+  public IDAStarSearcher(Predicate<Node> goalTest,
+                         Function<Node,Double> heuristic,
+                         Function<State,Node> initializer) {
+    this(goalTest, heuristic, initializer, DEFAULT_TABLE_SIZE);
+  }
+
+  /**
+   * Primary constructor for this class.
+   *
+   * @param goalTest A boolean-returning function checking whether a
+   * tree node contains a goal state.
+   *
+   * @param heuristic Heuristic function for this search application.
+   *
+   * @param initializer Creates an initial tree node from a search
+   * space element.
+   *
+   * @param tableSize The number of entries in the transposition
+   * table, rounded up to a power of two.  The table holds a reference
+   * to the state of each entry, so this parameter bounds the memory
+   * the search uses beyond the current path.
+   */
+  public IDAStarSearcher(Predicate<Node> goalTest,
+                         Function<Node,Double> heuristic,
+                         Function<State,Node> initializer,
+                         int tableSize) {
+    this.goalTest = goalTest;
+    this.heuristic = heuristic;
+    this.initializer = initializer;
+    final int capacity = Math.max(1, Integer.highestOneBit(tableSize-1) << 1);
+    this.tableStates = new Object[capacity];
+    this.tableCosts = new double[capacity];
+    this.tableIterations = new int[capacity];
+    this.tableMask = capacity-1;
+  }
+
+  /**
+   *  Searches for a goal reachable from an initial state.
+   *
+   * @param initial The starting element
+   * @return The first goal node reached, with an admissible heuristic
+   * one of least cost
+   * @throws SearchFailureException if no goal is reachable
+   * @throws SearchCancelledException if the thread running the search
+   * is interrupted
+   */
+  public Node search(State initial) throws SearchFailureException {
+    Arrays.fill(tableStates, null);
+    this.expanded = 0;
+    this.generated = 1;
+    this.iterations = 0;
+    this.tableHits = 0;
+    this.parentPrunes = 0;
+    this.found = null;
+    this.cancelled = false;
+
+    final Node root = initializer.apply(initial);
+    final double estimate = heuristic.apply(root);
+    limit = root.getCost() + estimate;
+    for(iteration=1; ; iteration++) {
+      if (Thread.interrupted()) {
+        throw new SearchCancelledException();
+      }
+      this.iterations = iteration;
+      record(root.getState(), root.getCost());
+      final double next = probe(root, null, estimate);
+      if (cancelled) {
+        Thread.interrupted();
+        throw new SearchCancelledException();
+      }
+      if (found != null) {
+        final Node result = found;
+        found = null;
+        return result;
+      }
+      if (next == Double.POSITIVE_INFINITY) {
+        throw new SearchFailureException();
+      }
+      limit = next;
+    }
+  }
+
+  /**
+   *  Convenience method for when we care only about whether a
+   *  solution exists, and not what it is.
+   */
+  public boolean solvable(final State initial) {
+    try {
+      search(initial);
+      return true;
+    } catch (SearchFailureException e) {
+      return false;
+    }
+  }
+
+  /**
+   *  Searches below one node, within the current limit.
+   *
+   * @param node The node to search below
+   * @param parentState The state of the node's parent, or
+   * <tt>null</tt> for the initial node
+   * @param estimate The estimate for the node
+   * @return The least <i>f</i> which exceeded the limit below this
+   * node, or infinity if no node did
+   */
+  private double probe(Node node, State parentState, double estimate) {
+    final double cost = node.getCost();
+    final double f = cost + estimate;
+    if (f > limit) {
+      return f;
+    }
+    if (goalTest.test(node)) {
+      found = node;
+      return f;
+    }
+
+    // Check for interruption now and then, unwinding if it is found.
+    this.expanded += 1;
+    if ((expanded & 0x3FF) == 0 && Thread.currentThread().isInterrupted()) {
+      cancelled = true;
+      return Double.POSITIVE_INFINITY;
+    }
+    final ArrayList<Node> children = new ArrayList<Node>();
+    node.forEachChild((child) -> {
+        this.generated += 1;
+        if (parentState != null && parentState.equals(child.getState())) {
+          this.parentPrunes += 1;
+        } else {
+          children.add(child);
+        }
+      });
+
+    // Order the children by estimate, by insertion sort since there
+    // are seldom many.
+    final int count = children.size();
+    final double[] estimates = new double[count];
+    for(int i=0; i<count; i++) {
+      final Node child = children.get(i);
+      final double h = heuristic.apply(child);
+      int j = i;
+      while (j > 0 && estimates[j-1] > h) {
+        estimates[j] = estimates[j-1];
+        children.set(j, children.get(j-1));
+        j -= 1;
+      }
+      estimates[j] = h;
+      children.set(j, child);
+    }
+
+    final State state = node.getState();
+    double next = Double.POSITIVE_INFINITY;
+    for(int i=0; i<count; i++) {
+      final Node child = children.get(i);
+      final State childState = child.getState();
+      final double childCost = child.getCost();
+      if (alreadySearched(childState, childCost)) {
+        this.tableHits += 1;
+        continue;
+      }
+      record(childState, childCost);
+      final double result = probe(child, state, estimates[i]);
+      if (found != null || cancelled) {
+        return result;
+      }
+      next = Math.min(next, result);
+    }
+    return next;
+  }
+
+  // -----------------------------------------------------------------
+  // Transposition table.
+
+  private int slotFor(State state) {
+    final int h = state.hashCode() * 0x9E3779B9;
+    return (h ^ (h >>> 16)) & tableMask;
+  }
+
+  /**
+   *  Checks whether a state has already been searched in this
+   *  iteration from a cost no greater than the given one.
+   */
+  private boolean alreadySearched(State state, double cost) {
+    final int slot = slotFor(state);
+    final Object held = tableStates[slot];
+    return held != null && tableIterations[slot] == iteration
+        && tableCosts[slot] <= cost && state.equals(held);
+  }
+
+  /**
+   *  Notes that a state is about to be searched from some cost, if
+   *  the replacement policy allows.
+   */
+  private void record(State state, double cost) {
+    final int slot = slotFor(state);
+    final Object held = tableStates[slot];
+    if (held != null && tableIterations[slot] == iteration
+        && tableCosts[slot] < cost && !state.equals(held)) {
+      return;
+    }
+    tableStates[slot] = state;
+    tableCosts[slot] = cost;
+    tableIterations[slot] = iteration;
+  }
+
+  // -----------------------------------------------------------------
+  // Statistics.
+
+  /**
+   *  Returns the number of nodes expanded in the last search, over all
+   *  of its iterations.
+   * @return -1 if no search has been executed
+   */
+  public long getLastExpanded() { return expanded; }
+
+  /**
+   *  Returns the number of nodes generated in the last search, over
+   *  all of its iterations, including the initial node.
+   * @return -1 if no search has been executed
+   */
+  public long getLastGenerated() { return generated; }
+
+  /**
+   *  Returns the number of iterations, each with a higher limit on
+   *  <i>f</i>, of the last search.
+   * @return -1 if no search has been executed
+   */
+  public long getLastIterations() { return iterations; }
+
+  /**
+   *  Returns the number of nodes of the last search which were not
+   *  searched because the transposition table showed that their
+   *  states had already been searched from no greater cost.
+   * @return -1 if no search has been executed
+   */
+  public long getLastTableHits() { return tableHits; }
+
+  /**
+   *  Returns the number of nodes of the last search which were not
+   *  searched because they returned to their grandparent's state.
+   * @return -1 if no search has been executed
+   */
+  public long getLastParentPrunes() { return parentPrunes; }
+}
@@ -0,0 +1,40 @@
+// Rushhour AI assignment
+//
+// Description: Sample Rushhour boards
+// Date: December 2020
+// Author: John Maraist
+
+package search;
+
+/**
+ *  Additional interface implemented by search tree nodes which can
+ *  hold their own heuristic estimate and priority, so that a searcher
+ *  need evaluate the heuristic only once per node rather than on
+ *  every comparison its frontier makes.
+ */
+public interface KnowsOwnPriority extends KnowsOwnCost {
+
+  /**
+   * @return The heuristic estimate of the cost of reaching a goal
+   * from the state in this node, or {@link Double#NaN NaN} if it has
+   * not been set.
+   */
+  public double getEstimate();
+
+  /**
+   * @return The priority by which a frontier ranks this node, lowest
+   * first, or {@link Double#NaN NaN} if it has not been set.
+   */
+  public double getPriority();
+
+  /**
+   * Records the heuristic estimate and priority of this node.  A
+   * searcher calls this method once, before adding the node to its
+   * frontier.
+   *
+   * @param estimate The heuristic estimate <i>h(n)</i>
+   *
+   * @param priority The priority, for A* <i>f(n) = g(n)+h(n)</i>
+   */
+  public void setPriority(double estimate, double priority);
+}
@@ -152,8 +152,9 @@ public final class Nodes {
                                   SimpleCoreTreeCostNode<Self, Exp, S>,
                              Exp extends CostAndStep<S>, S>
       extends SimpleCoreTreeNode<Self, Exp, S>
-      implements KnowsOwnCost {
+      implements KnowsOwnPriority {
     private final double cost;
+    private double estimate = Double.NaN, priority = Double.NaN;
 
     /**
      * Sole constructor for this class.
@@ -175,6 +176,18 @@ public final class Nodes {
     /** {@inheritDoc} */
     public double getCost() { return cost; }
 
+    /** {@inheritDoc} */
+    public double getEstimate() { return estimate; }
+
+    /** {@inheritDoc} */
+    public double getPriority() { return priority; }
+
+    /** {@inheritDoc} */
+    public void setPriority(double estimate, double priority) {
+      this.estimate = estimate;
+      this.priority = priority;
+    }
+
     /** {@inheritDoc} */
     @Override public String toString() {
       return "[" + getState().toString() + "@" + getCost() + "]";
@@ -371,8 +384,9 @@ public final class Nodes {
                                       SimpleCoreTreePathCostNode<Self,Exp,S>,
                                  Exp extends CostAndStep<S>, S>
       extends SimpleCoreTreePathNode<Self, Exp, S>
-      implements KnowsOwnCost {
+      implements KnowsOwnPriority {
     private final double cost;
+    private double estimate = Double.NaN, priority = Double.NaN;
 
     /**
      * @param expander Function from the underlying state to an
@@ -419,6 +433,18 @@ public final class Nodes {
     /** {@inheritDoc} */
     public double getCost() { return cost; }
 
+    /** {@inheritDoc} */
+    public double getEstimate() { return estimate; }
+
+    /** {@inheritDoc} */
+    public double getPriority() { return priority; }
+
+    /** {@inheritDoc} */
+    public void setPriority(double estimate, double priority) {
+      this.estimate = estimate;
+      this.priority = priority;
+    }
+
     /** {@inheritDoc} */
     @Override public String toString() {
       return "[" + pathToString() + "@" + getCost() + "]";
@@ -0,0 +1,29 @@
+// Rushhour AI assignment
+//
+// Description: Sample Rushhour boards
+// Date: December 2020
+// Author: John Maraist
+
+package search;
+
+/**
+ *  Thrown by a frontier which relies on priorities never decreasing,
+ *  such as a {@linkplain Frontiers.RadixHeap radix heap}, when a node
+ *  is added whose priority is below that of a node already popped.
+ *  In A*, this exception indicates that the heuristic is not
+ *  consistent.
+ */
+@SuppressWarnings("serial")
+public class NonMonotonePriorityException extends IllegalStateException {
+
+  /**
+   * @param priority The priority of the node being added
+   *
+   * @param lastPopped The priority of the most recently popped node
+   */
+  public NonMonotonePriorityException(final long priority,
+                                      final long lastPopped) {
+    super("Priority " + priority + " added after priority "
+          + lastPopped + " was popped");
+  }
+}
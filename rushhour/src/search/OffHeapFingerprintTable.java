@@ -0,0 +1,216 @@
+// Rushhour AI assignment
+//
+// Description: Sample Rushhour boards
+// Date: December 2020
+// Author: John Maraist
+
+package search;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ *  Set of 64-bit fingerprints like {@link FingerprintTable}, but held
+ *  outside the Java heap in direct {@link ByteBuffer}s, so that a
+ *  table of hundreds of millions of entries neither needs a large
+ *  heap nor lengthens garbage collection.  The JVM's limit on direct
+ *  memory (<tt>-XX:MaxDirectMemorySize</tt>) bounds the table
+ *  instead.
+ *
+ *  Each slot holds the fingerprint, followed by a fixed number of
+ *  words of full key for verifying it; the width is fixed by the
+ *  first entry added, and every later key must have the same length.
+ *  Buffers are indexed by <tt>int</tt>, so the slots are spread over
+ *  segments of 2<sup>27</sup> words (one gigabyte) each.
+ *
+ *  Zero marks an empty slot, so entries with a zero fingerprint are
+ *  kept on the heap, which is harmless as long as the fingerprint is
+ *  a reasonable hash.
+ */
+final class OffHeapFingerprintTable {
+
+  private static final int SEGMENT_BITS = 27;
+  private static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+
+  private final double maxLoad;
+  private final int growthFactor;
+  private LongBuffer[] segments = null;
+  private long capacity, mask, size = 0;
+  private int width = -1;
+  private final ArrayList<long[]> zeroKeys = new ArrayList<long[]>();
+
+  /**
+   * @param initialCapacity The number of slots first allocated, which
+   * is rounded up to a power of two
+   *
+   * @param maxLoad The fraction of slots which may be filled before
+   * the table grows, greater than zero and less than one
+   *
+   * @param growthFactor The factor by which the number of slots grows,
+   * a power of two greater than one
+   */
+  OffHeapFingerprintTable(long initialCapacity, double maxLoad,
+                          int growthFactor) {
+    if (!(0 < maxLoad && maxLoad < 1)) {
+      throw new IllegalArgumentException("Bad maximum load " + maxLoad);
+    }
+    if (growthFactor < 2 || Integer.bitCount(growthFactor) != 1) {
+      throw new IllegalArgumentException
+          ("Growth factor " + growthFactor + " is not a power of two");
+    }
+    this.maxLoad = maxLoad;
+    this.growthFactor = growthFactor;
+    this.capacity = Math.max(16, Long.highestOneBit(initialCapacity-1) << 1);
+    this.mask = capacity-1;
+  }
+
+  /**
+   *  Returns the number of distinct entries in the table.
+   */
+  long size() { return size; }
+
+  /**
+   *  Returns the number of bytes of direct memory the table occupies.
+   */
+  long allocatedBytes() {
+    return segments == null ? 0 : 8 * capacity * width;
+  }
+
+  /**
+   *  Drops the table's direct buffers and its entries, so that the
+   *  memory they hold can be reclaimed without waiting for the table
+   *  itself to become unreachable.  The table is empty afterwards.
+   */
+  void release() {
+    segments = null;
+    width = -1;
+    size = 0;
+    zeroKeys.clear();
+  }
+
+  /**
+   *  Adds an entry, if it is not already present.  The key is only
+   *  read, and is copied if the entry is new.
+   *
+   * @param fingerprint The fingerprint
+   *
+   * @param key The full key, or <tt>null</tt> if the fingerprint is
+   * exact
+   *
+   * @return <tt>true</tt> if the entry was not already present
+   */
+  boolean add(long fingerprint, long[] key) {
+    final int keyWords = key == null ? 0 : key.length;
+    if (segments == null) {
+      width = 1 + keyWords;
+      segments = allocate(capacity, width);
+    } else if (keyWords != width-1) {
+      throw new IllegalArgumentException
+          ("Key of " + keyWords + " words in table of " + (width-1));
+    }
+
+    if (fingerprint == 0) {
+      for(final long[] other : zeroKeys) {
+        if (Arrays.equals(other, key)) { return false; }
+      }
+      zeroKeys.add(key == null ? null : Arrays.copyOf(key, key.length));
+      size += 1;
+      return true;
+    }
+
+    long slot = slotFor(fingerprint);
+    long found;
+    while ((found = get(segments, slot*width)) != 0) {
+      if (found == fingerprint && keyMatches(slot, key)) {
+        return false;
+      }
+      slot = (slot+1) & mask;
+    }
+    store(segments, slot, fingerprint, key);
+    size += 1;
+    if (size > maxLoad * capacity) {
+      grow();
+    }
+    return true;
+  }
+
+  private boolean keyMatches(long slot, long[] key) {
+    for(int i=1; i<width; i++) {
+      if (get(segments, slot*width + i) != key[i-1]) { return false; }
+    }
+    return true;
+  }
+
+  private long slotFor(long fingerprint) {
+    long z = fingerprint * 0x9E3779B97F4A7C15L;
+    return (z ^ (z >>> 32)) & mask;
+  }
+
+  private void store(LongBuffer[] segments, long slot,
+                     long fingerprint, long[] key) {
+    final long base = slot*width;
+    put(segments, base, fingerprint);
+    for(int i=1; i<width; i++) {
+      put(segments, base+i, key[i-1]);
+    }
+  }
+
+  private void grow() {
+    final LongBuffer[] old = segments;
+    final long oldCapacity = capacity;
+    capacity *= growthFactor;
+    mask = capacity-1;
+    segments = allocate(capacity, width);
+    final long[] key = new long[width-1];
+    int copied = 0;
+    for(long i=0; i<oldCapacity; i++) {
+      // Drop each old segment as soon as every slot in it has been
+      // moved, so that both tables are not held in full at once.
+      final int segment = (int)((i*width) >>> SEGMENT_BITS);
+      while (copied < segment) {
+        old[copied++] = null;
+      }
+      final long fingerprint = get(old, i*width);
+      if (fingerprint != 0) {
+        for(int j=1; j<width; j++) {
+          key[j-1] = get(old, i*width + j);
+        }
+        long slot = slotFor(fingerprint);
+        while (get(segments, slot*width) != 0) {
+          slot = (slot+1) & mask;
+        }
+        store(segments, slot, fingerprint, key);
+      }
+    }
+  }
+
+  /**
+   *  Allocates zeroed direct buffers for a number of slots of some
+   *  width.
+   */
+  private static LongBuffer[] allocate(long slots, int width) {
+    final long words = slots*width;
+    final int count = (int)((words + SEGMENT_MASK) >>> SEGMENT_BITS);
+    final LongBuffer[] result = new LongBuffer[count];
+    for(int i=0; i<count; i++) {
+      final long segmentWords =
+          Math.min(SEGMENT_MASK+1, words - ((long)i << SEGMENT_BITS));
+      result[i] = ByteBuffer.allocateDirect((int)(8*segmentWords))
+          .order(ByteOrder.nativeOrder()).asLongBuffer();
+    }
+    return result;
+  }
+
+  private static long get(LongBuffer[] segments, long word) {
+    return segments[(int)(word >>> SEGMENT_BITS)]
+        .get((int)(word & SEGMENT_MASK));
+  }
+
+  private static void put(LongBuffer[] segments, long word, long value) {
+    segments[(int)(word >>> SEGMENT_BITS)]
+        .put((int)(word & SEGMENT_MASK), value);
+  }
+}
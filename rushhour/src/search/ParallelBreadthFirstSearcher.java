@@ -0,0 +1,372 @@
+// Rushhour AI assignment
+//
+// Description: Sample Rushhour boards
+// Date: December 2020
+// Author: John Maraist
+
+package search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ *  Breadth-first search which expands each layer of the search tree
+ *  in parallel on a {@link ForkJoinPool}.  The nodes of a layer are
+ *  divided among the pool's threads, and each child whose state is
+ *  not in an earlier layer is claimed in a shared {@link
+ *  ConcurrentHashMap}.  The states of the earlier layers are kept only
+ *  as verified fingerprints, as in {@link
+ *  ExploredSets#trackByFingerprint(ToLongFunction,Function)
+ *  trackByFingerprint}; the map of claims, and so the references to
+ *  nodes which lost their claims, lasts only while one layer is built.
+ *
+ *  Each claim records the layer of the child, and the positions of
+ *  its parent in the parent layer and of the child among its parent's
+ *  children; when several threads reach the same state, the least
+ *  claim wins.  The winners in order of their claims are exactly the
+ *  nodes which a {@linkplain BreadthFirstSearcher sequential search}
+ *  would add to its queue, in the same order, so this search returns
+ *  the same goal node as a sequential search with the first goal it
+ *  removes from the queue, and reports the same statistics.  To get
+ *  those statistics right when the goal is not first in its layer,
+ *  the nodes ahead of it in the layer are expanded too, as the
+ *  sequential search would.
+ *
+ *  Within the layer being built, states are compared with their
+ *  <tt>equals</tt> and <tt>hashCode</tt> methods.  States must be safe
+ *  to share between threads, as must the expansion of nodes and their
+ *  fingerprints and keys.
+ *
+ * @param <State> Type representing elements of the search space.
+ * @param <Node> Type representing nodes in the search tree.  Each
+ * node typically contains a reference to a State element.
+ */
+public class ParallelBreadthFirstSearcher
+    <State, Node extends SearchTreeNode<Node,State>> {
+
+  private final Predicate<Node> goalTest;
+  private final ToLongFunction<Node> fingerprint;
+  private final Function<Node,long[]> fullKey;
+  private final Function<State,Node> initializer;
+  private final ForkJoinPool pool;
+
+  private long
+      addedToFrontier=-1,
+      notAddedToFrontier=-1,
+      expandedFromFrontier=-1,
+      unexpandedInFrontier=-1;
+
+  /**
+   *  Constructor which runs searches on the {@linkplain
+   *  ForkJoinPool#commonPool common pool}.
+   *
+   * @param goalTest Success predicate on tree nodes.
+   *
+   * @param fingerprint Function taking a search node, and returning
+   * its fingerprint.
+   *
+   * @param fullKey Function taking a search node, and returning a key
+   * identifying its state exactly, or <tt>null</tt> if the node's
+   * fingerprint is exact by itself.  Every key must have the same
+   * length.
+   *
+   * @param initializer Creates an initial tree node from a search
+   * space element.
+   */
+  public ParallelBreadthFirstSearcher(Predicate<Node> goalTest,
+                                      ToLongFunction<Node> fingerprint,
+                                      Function<Node,long[]> fullKey,
+                                      Function<State,Node> initializer) {
+    this(goalTest, fingerprint, fullKey, initializer,
+         ForkJoinPool.commonPool());
+  }
+
+  /**
+   *  Primary constructor for this class.
+   *
+   * @param goalTest Success predicate on tree nodes.
+   *
+   * @param fingerprint Function taking a search node, and returning
+   * its fingerprint.
+   *
+   * @param fullKey Function taking a search node, and returning a key
+   * identifying its state exactly, or <tt>null</tt> if the node's
+   * fingerprint is exact by itself.  Every key must have the same
+   * length.
+   *
+   * @param initializer Creates an initial tree node from a search
+   * space element.
+   *
+   * @param pool The threads which expand each layer.
+   */
+  public ParallelBreadthFirstSearcher(Predicate<Node> goalTest,
+                                      ToLongFunction<Node> fingerprint,
+                                      Function<Node,long[]> fullKey,
+                                      Function<State,Node> initializer,
+                                      ForkJoinPool pool) {
+    this.goalTest = goalTest;
+    this.fingerprint = fingerprint;
+    this.fullKey = fullKey;
+    this.initializer = initializer;
+    this.pool = pool;
+  }
+
+  /**
+   *  Executes a search beginning from a particular search space
+   *  element.
+   *
+   * @param initial The starting element
+   * @return The tree node corresponding to a goal element of the
+   * search space which is returned from this search
+   * @throws SearchFailureException When the search does not lead to a
+   * goal state
+   * @throws SearchCancelledException When the thread running the
+   * search is interrupted, which is checked between layers
+   */
+  public Node search(State initial) throws SearchFailureException {
+    final Node initialNode = initializer.apply(initial);
+    this.addedToFrontier = 1;
+    this.notAddedToFrontier = 0;
+    this.expandedFromFrontier = 0;
+    if (goalTest.test(initialNode)) {
+      this.unexpandedInFrontier = 0;
+      return initialNode;
+    }
+
+    final FingerprintTable settled = new FingerprintTable(1024);
+    settle(initialNode, settled);
+    ArrayList<Node> layer = new ArrayList<>();
+    layer.add(initialNode);
+
+    for(int depth=1; !layer.isEmpty(); depth++) {
+      if (Thread.interrupted()) {
+        this.unexpandedInFrontier = layer.size();
+        throw new SearchCancelledException();
+      }
+      final Layer<Node> next = expand(layer, layer.size(), depth, settled);
+      this.expandedFromFrontier += layer.size();
+      count(next);
+      for(final Node node : next.nodes) {
+        settle(node, settled);
+      }
+
+      if (next.goal >= 0) {
+        // The sequential search expands the nodes ahead of the goal
+        // before removing the goal from its queue.
+        final Layer<Node> beyond =
+            expand(next.nodes, next.goal, depth+1, settled);
+        this.expandedFromFrontier += next.goal;
+        count(beyond);
+        this.unexpandedInFrontier =
+            next.nodes.size() - next.goal - 1 + beyond.nodes.size();
+        return next.nodes.get(next.goal);
+      }
+      layer = next.nodes;
+    }
+
+    this.unexpandedInFrontier = 0;
+    throw new SearchFailureException();
+  }
+
+  /**
+   *  Convenience method for when we care only about whether a
+   *  solution exists, and not what it is.
+   *
+   * @param initial The starting element
+   * @return <tt>true</tt> if {@link #search} would return a final
+   * node with the same initial state, otherwise <tt>false</tt>
+   */
+  public boolean solvable(final State initial) {
+    try {
+      final Node result = search(initial);
+      return true;
+    } catch (SearchFailureException e) {
+      return false;
+    }
+  }
+
+  private void settle(Node node, FingerprintTable settled) {
+    settled.add(fingerprint.applyAsLong(node), fullKey.apply(node));
+  }
+
+  private void count(Layer<Node> layer) {
+    this.addedToFrontier += layer.nodes.size();
+    this.notAddedToFrontier += layer.generated - layer.nodes.size();
+  }
+
+  // -----------------------------------------------------------------
+  // Expanding a layer.
+
+  /**
+   *  Expands a prefix of a layer in parallel.
+   *
+   * @param layer The nodes of the layer, in order
+   * @param count How many nodes from the start of the layer to expand
+   * @param depth The depth of the children
+   * @param settled The states of every earlier layer, which is only
+   * read while the layer is expanded
+   * @return The children which won their claims, in order
+   */
+  private Layer<Node> expand(ArrayList<Node> layer, int count, int depth,
+                             FingerprintTable settled) {
+
+    // First every child whose state is new bids for it.
+    final ConcurrentHashMap<State,Claim<Node>> claims =
+        new ConcurrentHashMap<>();
+    final ArrayList<ArrayList<Claim<Node>>> bids =
+        new ArrayList<>(Collections.nCopies(count, null));
+    final long[] generated = new long[count];
+    forEachIndex(count, (i) -> {
+        final ArrayList<Claim<Node>> mine = new ArrayList<>();
+        layer.get(i).forEachChild((child) -> {
+            final int position = (int)generated[i]++;
+            if (!settled.contains(fingerprint.applyAsLong(child),
+                                  fullKey.apply(child))) {
+              final Claim<Node> claim =
+                  new Claim<>(depth, ((long)i << 32) | position, child);
+              mine.add(claim);
+              claims.merge(child.getState(), claim, Claim::least);
+            }
+          });
+        bids.set(i, mine);
+      });
+
+    // Then, with every bid in, each parent keeps its winning children
+    // and notes the first goal among them.
+    final ArrayList<ArrayList<Node>> winners =
+        new ArrayList<>(Collections.nCopies(count, null));
+    final int[] goals = new int[count];
+    forEachIndex(count, (i) -> {
+        final ArrayList<Node> mine = new ArrayList<>();
+        int goal = -1;
+        for(final Claim<Node> claim : bids.get(i)) {
+          if (claims.get(claim.node.getState()) == claim) {
+            if (goal < 0 && goalTest.test(claim.node)) {
+              goal = mine.size();
+            }
+            mine.add(claim.node);
+          }
+        }
+        winners.set(i, mine);
+        goals[i] = goal;
+      });
+
+    final Layer<Node> result = new Layer<>();
+    for(int i=0; i<count; i++) {
+      if (result.goal < 0 && goals[i] >= 0) {
+        result.goal = result.nodes.size() + goals[i];
+      }
+      result.nodes.addAll(winners.get(i));
+      result.generated += generated[i];
+    }
+    return result;
+  }
+
+  /**
+   *  Runs an action on each index below a bound, in parallel on this
+   *  searcher's pool, returning when all have finished.
+   */
+  private void forEachIndex(int count, IntConsumer action) {
+    final int grain = Math.max(16, count / (8*pool.getParallelism()));
+    pool.invoke(new Span(0, count, grain, action));
+  }
+
+  @SuppressWarnings("serial")
+  private static final class Span extends RecursiveAction {
+    private final int from, to, grain;
+    private final IntConsumer action;
+
+    Span(int from, int to, int grain, IntConsumer action) {
+      this.from = from;
+      this.to = to;
+      this.grain = grain;
+      this.action = action;
+    }
+
+    @Override protected void compute() {
+      if (to-from <= grain) {
+        for(int i=from; i<to; i++) {
+          action.accept(i);
+        }
+      } else {
+        final int mid = (from+to) >>> 1;
+        invokeAll(new Span(from, mid, grain, action),
+                  new Span(mid, to, grain, action));
+      }
+    }
+  }
+
+  /**
+   *  A node's bid for its state: the layer of the node, then the
+   *  position of its parent in the layer before, then its position
+   *  among its parent's children.
+   */
+  private static final class Claim<Node> {
+    final int layer;
+    final long order;
+    final Node node;
+
+    Claim(int layer, long order, Node node) {
+      this.layer = layer;
+      this.order = order;
+      this.node = node;
+    }
+
+    static <Node> Claim<Node> least(Claim<Node> a, Claim<Node> b) {
+      return (a.layer < b.layer || (a.layer == b.layer && a.order <= b.order))
+          ? a : b;
+    }
+  }
+
+  private static final class Layer<Node> {
+    final ArrayList<Node> nodes = new ArrayList<>();
+    long generated = 0;
+    int goal = -1;
+  }
+
+  // -----------------------------------------------------------------
+  // Statistics.
+
+  /**
+   *  Returns the number of frontier nodes which were added to the
+   *  last search.
+   * @return -1 if no search has been executed
+   */
+  public long getLastAddedToFrontier() {
+    return addedToFrontier;
+  }
+
+  /**
+   *  Returns the number of frontier nodes which were generated from
+   *  an expanded node, but <em>not</em> added to the last search.
+   * @return -1 if no search has been executed
+   */
+  public long getLastNotAddedToFrontier() {
+    return notAddedToFrontier;
+  }
+
+  /**
+   *  Returns the number of frontier nodes which were expanded in the
+   *  last search.
+   * @return -1 if no search has been executed
+   */
+  public long getLastExpandedFromFrontier() {
+    return expandedFromFrontier;
+  }
+
+  /**
+   *  Returns the number of nodes which were left in the frontier at
+   *  the end of the last search.
+   * @return -1 if no search has been executed
+   */
+  public long getLastUnexpandedInFrontier() {
+    return unexpandedInFrontier;
+  }
+}
@@ -24,7 +24,7 @@ import java.util.function.Supplier;
 public class
     PriorityQueueSearcher<State,
                           Node extends SearchTreeNode<Node,State>,
-                          Frontier extends Frontiers.PriorityQueue<Node>>
+                          Frontier extends FrontierStructure<Node>>
     extends GraphSearcher<State, Node, Frontier> {
 
   /**
@@ -71,7 +71,7 @@ public class
 
   /**
    *  Primary constructor for this class.  Since the use of a priority
-   *  queue is specified by the bounds on <tt>Frontier</tt>, this
+   *  queue is specified by the frontier factory, this
    *  constructor simply passes its arguments to the {@linkplain
    *  GraphSearcher superclass} constructor.  Other constructors for
    *  this class invoke this constructor.
@@ -83,8 +83,9 @@ public class
    *
    * @param frontierFactory The {@link java.util.function.Supplier#get
    * get} method of this object returns a new, empty Frontier
-   * instance.  Note that the type bound on <tt>Factory</tt> requires
-   * that the generated objects conform to {@link Frontiers.PriorityQueue}.
+   * instance.  The generated objects should pop nodes in priority
+   * order, as for example {@link Frontiers.PriorityQueue} and {@link
+   * Frontiers.IndexedPriorityQueue} do.
    *
    * @param exploredSetFactory Structure used to manage adding
    * elements to the frontier, in particular for avoiing duplication.
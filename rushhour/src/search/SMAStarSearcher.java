@@ -0,0 +1,456 @@
+// Rushhour AI assignment
+//
+// Description: Sample Rushhour boards
+// Date: December 2020
+// Author: John Maraist
+
+package search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ *  Simplified memory-bounded A* (SMA*, Russell 1992): A* which never
+ *  holds more than a fixed number of nodes.  The nodes held form a
+ *  tree, linked by the {@linkplain SearchTreePathNode#getParent
+ *  parents} of the nodes themselves, and each state appears in it at
+ *  most once, with the cheapest path to it found so far.  Nodes are
+ *  expanded in order of <i>f(n) = g(n)+h(n)</i>, deepest first among
+ *  equals, and the goal test is applied as a node is chosen for
+ *  expansion, so with an admissible heuristic the solution is
+ *  optimal.
+ *
+ *  When the successors of a node would take the tree past its
+ *  budget, the worst leaves are dropped: those of highest <i>f</i>,
+ *  shallowest first among equals, whether among the new successors
+ *  or elsewhere in the tree.  A dropped leaf's <i>f</i> is backed up
+ *  into its parent, which remembers the least <i>f</i> of its
+ *  forgotten children, and which rejoins the frontier with that value
+ *  so that they can be generated again once nothing better remains.
+ *  A regenerated child is given at least that value, since nothing
+ *  below the forgotten children was cheaper.  A parent which loses
+ *  all of its children becomes a leaf again.  Every interior node's
+ *  <i>f</i> is kept as the least over its children and its forgotten
+ *  children, so it never understates how cheap a solution below it
+ *  can be.
+ *
+ *  Since a solution path must be held entire, along with the
+ *  successors of its last node, no solution deeper than the budget
+ *  allows can be found.  A tight budget costs time, as the same
+ *  subtrees are forgotten and generated again; with a budget larger
+ *  than the search needs this is plain A*.
+ *
+ * @param <State> Type representing elements of the search space.
+ * @param <Node> Type representing nodes in the search tree.  Each
+ * node typically contains a reference to a State element.
+ */
+public class SMAStarSearcher
+    <State, Node extends SearchTreePathNode<Node,State> & KnowsOwnCost> {
+
+  private static final double INFINITY = Double.POSITIVE_INFINITY;
+
+  private final Predicate<Node> goalTest;
+  private final Function<Node,Double> heuristic;
+  private final Function<State,Node> initializer;
+  private final int maxNodes;
+
+  // The state of the current search.
+  private HashMap<State,Entry<Node>> table;
+  private TreeSet<Entry<Node>> open, leaves;
+  private Entry<Node> busy;
+  private long nextId;
+
+  private long
+      addedToFrontier=-1,
+      expandedFromFrontier=-1,
+      regenerations=-1,
+      forgotten=-1;
+
+  /**
+   * Constructor for this class.
+   *
+   * @param goalTest A boolean-returning function checking whether a
+   * tree node contains a goal state.
+   *
+   * @param heuristic Heuristic function for this search application.
+   *
+   * @param initializer Creates an initial tree node from a search
+   * space element.
+   *
+   * @param maxNodes The most nodes held at any time, at least two.
+   * Solutions longer than one move fewer than this are not found.
+   */
+  public SMAStarSearcher(Predicate<Node> goalTest,
+                         Function<Node,Double> heuristic,
+                         Function<State,Node> initializer,
+                         int maxNodes) {
+    if (maxNodes < 2) {
+      throw new IllegalArgumentException("Node budget " + maxNodes);
+    }
+    this.goalTest = goalTest;
+    this.heuristic = heuristic;
+    this.initializer = initializer;
+    this.maxNodes = maxNodes;
+  }
+
+  /**
+   *  Returns the most nodes held at any time.
+   */
+  public int getMaxNodes() { return maxNodes; }
+
+  /**
+   *  Searches for a goal reachable from an initial state.
+   *
+   * @param initial The starting element
+   * @return A goal node, with an admissible heuristic one of least
+   * cost among those within reach of the budget
+   * @throws SearchFailureException if no goal is reachable within the
+   * budget
+   * @throws SearchCancelledException if the thread running the search
+   * is interrupted
+   */
+  public Node search(State initial) throws SearchFailureException {
+    this.table = new HashMap<>();
+    this.open = new TreeSet<>(BEST_FIRST);
+    this.leaves = new TreeSet<>(WORST_FIRST);
+    this.busy = null;
+    this.nextId = 0;
+    this.addedToFrontier = 1;
+    this.expandedFromFrontier = 0;
+    this.regenerations = 0;
+    this.forgotten = 0;
+
+    try {
+      final Node rootNode = initializer.apply(initial);
+      final Entry<Node> root = newEntry(rootNode, 0, 0.0);
+      table.put(rootNode.getState(), root);
+      openAdd(root, root.f);
+      leafAdd(root);
+
+      while (true) {
+        if (open.isEmpty() || open.first().key == INFINITY) {
+          throw new SearchFailureException();
+        }
+        final Entry<Node> entry = open.pollFirst();
+        entry.inOpen = false;
+        if (!entry.expanded) {
+          leafRemove(entry);
+          if (goalTest.test(entry.node)) {
+            return entry.node;
+          }
+        }
+        if ((expandedFromFrontier & 0x3FF) == 0 && Thread.interrupted()) {
+          throw new SearchCancelledException();
+        }
+        expand(entry);
+      }
+    } finally {
+      this.table = null;
+      this.open = null;
+      this.leaves = null;
+      this.busy = null;
+    }
+  }
+
+  /**
+   *  Convenience method for when we care only about whether a
+   *  solution exists, and not what it is.
+   */
+  public boolean solvable(final State initial) {
+    try {
+      search(initial);
+      return true;
+    } catch (SearchFailureException e) {
+      return false;
+    }
+  }
+
+  /**
+   *  Generates the successors of a node, or if the node has already
+   *  been expanded, those of its successors which are not held, and
+   *  admits as many as fit.
+   */
+  private void expand(Entry<Node> parent) {
+    final double floor;
+    if (parent.expanded) {
+      this.regenerations += 1;
+      floor = parent.forgotten;
+    } else {
+      parent.expanded = true;
+      parent.children = new ArrayList<>();
+      floor = parent.f;
+    }
+    parent.forgotten = INFINITY;
+    this.expandedFromFrontier += 1;
+    this.busy = parent;
+
+    final ArrayList<Entry<Node>> fresh = new ArrayList<>();
+    if (parent.depth+2 <= maxNodes) {
+      parent.node.forEachChild((child) -> {
+          final State state = child.getState();
+          final Entry<Node> held = table.get(state);
+          if (held != null) {
+            if (held.node.getCost() <= child.getCost()) {
+              return;
+            }
+            removeSubtree(held);
+          }
+          final Entry<Node> entry = newEntry(child, parent.depth+1, floor);
+          table.put(state, entry);
+          fresh.add(entry);
+        });
+    }
+
+    // Make room, dropping whichever of the new successors and the
+    // leaves already held are worst, but keeping the best successor.
+    fresh.sort(BEST_FIRST);
+    while (table.size() > maxNodes) {
+      final Entry<Node> worstLeaf = leaves.isEmpty() ? null : leaves.first();
+      final int last = fresh.size()-1;
+      if (last > 0 && (worstLeaf == null
+                       || WORST_FIRST.compare(fresh.get(last),
+                                              worstLeaf) <= 0)) {
+        final Entry<Node> dropped = fresh.remove(last);
+        table.remove(dropped.node.getState());
+        parent.forgotten = Math.min(parent.forgotten, dropped.f);
+        this.forgotten += 1;
+      } else if (worstLeaf != null) {
+        forget(worstLeaf);
+      } else {
+        break;
+      }
+    }
+
+    this.busy = null;
+    for(final Entry<Node> entry : fresh) {
+      parent.children.add(entry);
+      openAdd(entry, entry.f);
+      leafAdd(entry);
+    }
+    this.addedToFrontier += fresh.size();
+    settle(parent);
+  }
+
+  private Entry<Node> newEntry(Node node, int depth, double floor) {
+    final double g = node.getCost();
+    return new Entry<>(node, depth, nextId++,
+                       Math.max(floor, g + heuristic.apply(node)));
+  }
+
+  /**
+   *  Returns the held entry of the parent of a held entry's node.
+   */
+  private Entry<Node> parentOf(Entry<Node> entry) {
+    final Node parent = entry.node.getParent();
+    return parent == null ? null : table.get(parent.getState());
+  }
+
+  /**
+   *  Drops a leaf, backing its <i>f</i> up into its parent.
+   */
+  private void forget(Entry<Node> leaf) {
+    leafRemove(leaf);
+    openRemove(leaf);
+    final Entry<Node> parent = parentOf(leaf);
+    table.remove(leaf.node.getState());
+    parent.children.remove(leaf);
+    parent.forgotten = Math.min(parent.forgotten, leaf.f);
+    this.forgotten += 1;
+    if (parent != busy) {
+      settle(parent);
+    }
+  }
+
+  /**
+   *  Drops an entry and everything below it, when its state has been
+   *  reached more cheaply.  Nothing is backed up, since any solution
+   *  below it is found more cheaply below the new entry.
+   */
+  private void removeSubtree(Entry<Node> top) {
+    final Entry<Node> parent = parentOf(top);
+    final ArrayDeque<Entry<Node>> pending = new ArrayDeque<>();
+    pending.push(top);
+    while (!pending.isEmpty()) {
+      final Entry<Node> entry = pending.pop();
+      leafRemove(entry);
+      openRemove(entry);
+      table.remove(entry.node.getState());
+      if (entry.children != null) {
+        for(final Entry<Node> child : entry.children) {
+          pending.push(child);
+        }
+      }
+    }
+    parent.children.remove(top);
+    if (parent != busy) {
+      settle(parent);
+    }
+  }
+
+  /**
+   *  Brings an expanded entry's place in the frontier and its
+   *  <i>f</i> up to date after its children change.
+   */
+  private void settle(Entry<Node> entry) {
+    final double before = entry.f;
+    openRemove(entry);
+    if (entry.children.isEmpty()) {
+      if (entry.forgotten < INFINITY) {
+        // Every child was forgotten, so this is a leaf again.
+        entry.expanded = false;
+        entry.children = null;
+        entry.f = Math.max(entry.f, entry.forgotten);
+        entry.forgotten = INFINITY;
+        openAdd(entry, entry.f);
+      } else {
+        entry.f = INFINITY;
+      }
+      leafAdd(entry);
+    } else {
+      if (entry.forgotten < INFINITY) {
+        openAdd(entry, entry.forgotten);
+      }
+      entry.f = leastF(entry);
+    }
+    if (entry.f != before) {
+      backUp(parentOf(entry));
+    }
+  }
+
+  /**
+   *  Brings the <i>f</i> of an interior entry, and of its ancestors,
+   *  up to date after that of one of its children changes.
+   */
+  private void backUp(Entry<Node> entry) {
+    while (entry != null && entry.children != null
+           && !entry.children.isEmpty()) {
+      final double f = leastF(entry);
+      if (f == entry.f) {
+        return;
+      }
+      entry.f = f;
+      entry = parentOf(entry);
+    }
+  }
+
+  private double leastF(Entry<Node> entry) {
+    double least = entry.forgotten;
+    for(final Entry<Node> child : entry.children) {
+      least = Math.min(least, child.f);
+    }
+    return least;
+  }
+
+  // -----------------------------------------------------------------
+  // The frontier and the leaves.  An entry's key fields must not
+  // change while it is in either set.
+
+  private void openAdd(Entry<Node> entry, double key) {
+    entry.key = key;
+    entry.inOpen = true;
+    open.add(entry);
+  }
+
+  private void openRemove(Entry<Node> entry) {
+    if (entry.inOpen) {
+      open.remove(entry);
+      entry.inOpen = false;
+    }
+  }
+
+  private void leafAdd(Entry<Node> entry) {
+    if (entry.depth > 0) {
+      entry.inLeaves = true;
+      leaves.add(entry);
+    }
+  }
+
+  private void leafRemove(Entry<Node> entry) {
+    if (entry.inLeaves) {
+      leaves.remove(entry);
+      entry.inLeaves = false;
+    }
+  }
+
+  /**
+   *  Orders the frontier: lowest key first, and among equal keys the
+   *  deepest and then the newest.
+   */
+  private static final Comparator<Entry<?>> BEST_FIRST = (a, b) -> {
+    int c = Double.compare(a.key, b.key);
+    if (c == 0) { c = Integer.compare(b.depth, a.depth); }
+    if (c == 0) { c = Long.compare(b.id, a.id); }
+    return c;
+  };
+
+  /**
+   *  Orders the leaves for dropping: highest <i>f</i> first, and among
+   *  equal values the shallowest and then the oldest.
+   */
+  private static final Comparator<Entry<?>> WORST_FIRST = (a, b) -> {
+    int c = Double.compare(b.f, a.f);
+    if (c == 0) { c = Integer.compare(a.depth, b.depth); }
+    if (c == 0) { c = Long.compare(a.id, b.id); }
+    return c;
+  };
+
+  /**
+   *  A node held in the tree.  An entry is on the frontier when it has
+   *  not been expanded, with its <i>f</i> as its key, or when some of
+   *  its children have been forgotten, with their least <i>f</i> as
+   *  its key.  It is a leaf, and may be dropped, when it holds no
+   *  children and is not the root.
+   */
+  private static final class Entry<Node> {
+    final Node node;
+    final int depth;
+    final long id;
+    double f, key;
+    double forgotten = INFINITY;
+    boolean expanded = false, inOpen = false, inLeaves = false;
+    ArrayList<Entry<Node>> children = null;
+
+    Entry(Node node, int depth, long id, double f) {
+      this.node = node;
+      this.depth = depth;
+      this.id = id;
+      this.f = f;
+    }
+  }
+
+  // -----------------------------------------------------------------
+  // Statistics.
+
+  /**
+   *  Returns the number of nodes which were added to the tree in the
+   *  last search, counting regenerated nodes each time.
+   * @return -1 if no search has been executed
+   */
+  public long getLastAddedToFrontier() { return addedToFrontier; }
+
+  /**
+   *  Returns the number of expansions in the last search, counting
+   *  regenerations of forgotten children.
+   * @return -1 if no search has been executed
+   */
+  public long getLastExpandedFromFrontier() { return expandedFromFrontier; }
+
+  /**
+   *  Returns the number of times in the last search that an expanded
+   *  node was expanded again to regenerate forgotten children.
+   * @return -1 if no search has been executed
+   */
+  public long getLastRegenerations() { return regenerations; }
+
+  /**
+   *  Returns the number of nodes which were dropped in the last search
+   *  to stay within the budget.
+   * @return -1 if no search has been executed
+   */
+  public long getLastForgotten() { return forgotten; }
+}
@@ -0,0 +1,15 @@
+// Rushhour AI assignment
+//
+// Description: Sample Rushhour boards
+// Date: December 2020
+// Author: John Maraist
+
+package search;
+
+/**
+ * Thrown from search algorithms when the thread running the search is
+ * interrupted before it finds a solution.  The thread's interrupt
+ * status is cleared.
+ */
+@SuppressWarnings("serial")
+public class SearchCancelledException extends SearchFailureException { }
@@ -5,6 +5,7 @@
 // Author: John Maraist
 
 package search;
+import java.util.function.Consumer;
 
 /**
  * Methods required of a search tree node.
@@ -29,5 +30,19 @@ public interface SearchTreeNode<Self extends SearchTreeNode<Self,State>,
    * @return An {@link Iterable} instance of the successor nodes.
    */
   public Iterable<Self> expand();
+
+  /**
+   * Passes each successor node to an action, as an alternative to
+   * {@link #expand} for node types which can generate their
+   * successors without building an {@link Iterable}.  The default
+   * implementation simply iterates over {@link #expand}.
+   *
+   * @param action Called once with each successor node
+   */
+  public default void forEachChild(Consumer<? super Self> action) {
+    for(final Self child : expand()) {
+      action.accept(child);
+    }
+  }
 }
 